@@ -0,0 +1,135 @@
+package com.tyzeron.datadump.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.tyzeron.datadump.BlockDataDump;
+import com.tyzeron.datadump.RegistryDataDump;
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.binary.BinaryDumpWriter;
+import com.tyzeron.datadump.builder.JsonDataBuilder;
+import com.tyzeron.datadump.builder.StreamingJsonDataBuilder;
+import com.tyzeron.datadump.builder.StreamingNbtDataBuilder;
+import com.tyzeron.datadump.config.ProfileConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures each output format driving BlockDataDump.buildBlockData and RegistryDataDump.buildRegistryData
+ * over synthetic data, writing into discarding sinks so only building and encoding are measured.
+ * Registry elements are NBT payloads as the providers extract them, so the NBT builder splices them
+ * and the JSON builder and binary writer replay them, the same paths a real dump takes.
+ * Run with the gc profiler (enabled in common/build.gradle) to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataBuilderBenchmark {
+
+    private static final Gson GSON = new Gson();
+
+    /**
+     * json-tree is the in-memory JsonDataBuilder followed by Gson serialization, the baseline the streaming
+     * builders replaced. The other formats are the ones dumps are written with.
+     */
+    @Param({"json-tree", "json", "nbt", "binary"})
+    public String format;
+
+    @Param({"1000", "10000"})
+    public int blockCount;
+
+    @Param({"10"})
+    public int registryCount;
+
+    @Param({"100", "1000"})
+    public int entriesPerRegistry;
+
+    private ProfileConfig profile;
+    private List<BlockInfo> blocks;
+    private List<RegistryInfo> registries;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        profile = DumpFixtures.fullProfile();
+        blocks = DumpFixtures.blocks(blockCount);
+        registries = DumpFixtures.registries(registryCount, entriesPerRegistry);
+    }
+
+    @Benchmark
+    public Object blocks() throws IOException {
+        switch (format) {
+            case "json-tree" -> {
+                Object root = BlockDataDump.buildBlockData(blocks, profile, new JsonDataBuilder());
+                GSON.toJson((JsonElement) root, Writer.nullWriter());
+                return root;
+            }
+            case "json" -> {
+                try (StreamingJsonDataBuilder builder = new StreamingJsonDataBuilder(Writer.nullWriter(), false)) {
+                    return BlockDataDump.buildBlockData(blocks, profile, builder);
+                }
+            }
+            case "nbt" -> {
+                try (StreamingNbtDataBuilder builder = new StreamingNbtDataBuilder(OutputStream.nullOutputStream())) {
+                    return BlockDataDump.buildBlockData(blocks, profile, builder);
+                }
+            }
+            case "binary" -> {
+                BinaryDumpWriter writer = new BinaryDumpWriter();
+                writer.addBlocks(blocks, profile);
+                writer.writeTo(OutputStream.nullOutputStream());
+                return writer;
+            }
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    @Benchmark
+    public Object registries() throws IOException {
+        switch (format) {
+            case "json-tree" -> {
+                Object root = RegistryDataDump.buildRegistryData(registries, profile, new JsonDataBuilder());
+                GSON.toJson((JsonElement) root, Writer.nullWriter());
+                return root;
+            }
+            case "json" -> {
+                try (StreamingJsonDataBuilder builder = new StreamingJsonDataBuilder(Writer.nullWriter(), false)) {
+                    return RegistryDataDump.buildRegistryData(registries, profile, builder);
+                }
+            }
+            case "nbt" -> {
+                try (StreamingNbtDataBuilder builder = new StreamingNbtDataBuilder(OutputStream.nullOutputStream())) {
+                    return RegistryDataDump.buildRegistryData(registries, profile, builder);
+                }
+            }
+            case "binary" -> {
+                BinaryDumpWriter writer = new BinaryDumpWriter();
+                writer.addRegistries(registries, profile);
+                writer.writeTo(OutputStream.nullOutputStream());
+                return writer;
+            }
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.tyzeron.datadump.benchmark;
+
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.block.BlockStateInfo;
+import com.tyzeron.datadump.abstraction.block.PropertyInfo;
+import com.tyzeron.datadump.abstraction.registry.NbtRegistryEntryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryEntryInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.config.ProfileConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.tyzeron.datadump.builder.StreamingNbtDataBuilder.*;
+
+
+/**
+ * Synthetic block and registry data shaped like a vanilla dump, generated from a fixed seed
+ * so every benchmark run sees the same input
+ */
+final class DumpFixtures {
+
+    private static final String[][] PROPERTY_VALUES = {
+        {"true", "false"},
+        {"north", "east", "south", "west"},
+        {"0", "1", "2", "3", "4", "5", "6", "7"},
+        {"top", "bottom", "double"},
+        {"x", "y", "z"}
+    };
+    private static final String[] PROPERTY_NAMES = {"waterlogged", "facing", "age", "type", "axis"};
+
+    private DumpFixtures() {
+    }
+
+    /**
+     * Creates blocks with up to three properties each and every combination of their values as states
+     */
+    static List<BlockInfo> blocks(int count) {
+        Random random = new Random(42);
+        List<BlockInfo> blocks = new ArrayList<>(count);
+        int stateId = 0;
+
+        // Blocks share property definitions, as they do when built by the providers
+        PropertyInfo[] sharedProperties = new PropertyInfo[PROPERTY_NAMES.length];
+        for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+            sharedProperties[i] = new PropertyInfo(PROPERTY_NAMES[i], List.of(PROPERTY_VALUES[i]));
+        }
+
+        for (int b = 0; b < count; b++) {
+            List<PropertyInfo> properties = new ArrayList<>();
+            int propertyCount = random.nextInt(4);
+            int first = random.nextInt(PROPERTY_NAMES.length);
+            for (int p = 0; p < propertyCount; p++) {
+                int index = (first + p) % PROPERTY_NAMES.length;
+                properties.add(sharedProperties[index]);
+            }
+
+            int stateCount = 1;
+            for (PropertyInfo property : properties) {
+                stateCount *= property.getPossibleValues().size();
+            }
+            List<BlockStateInfo> states = new ArrayList<>(stateCount);
+            for (int s = 0; s < stateCount; s++) {
+                int[] valueOrdinals = new int[properties.size()];
+                int remainder = s;
+                for (int p = properties.size() - 1; p >= 0; p--) {
+                    int valueCount = properties.get(p).getPossibleValues().size();
+                    valueOrdinals[p] = remainder % valueCount;
+                    remainder /= valueCount;
+                }
+                states.add(new BlockStateInfo(stateId++, properties, valueOrdinals, s == 0));
+            }
+
+            blocks.add(new BlockInfo(String.format("benchmark:block_%05d", b), properties, states));
+        }
+        return blocks;
+    }
+
+    /**
+     * Creates registries whose elements are binary NBT compounds similar to encoded worldgen data,
+     * the form the providers keep extracted elements in
+     */
+    static List<RegistryInfo> registries(int registryCount, int entriesPerRegistry) {
+        Random random = new Random(42);
+        List<RegistryInfo> registries = new ArrayList<>(registryCount);
+
+        for (int r = 0; r < registryCount; r++) {
+            List<RegistryEntryInfo> entries = new ArrayList<>(entriesPerRegistry);
+            for (int e = 0; e < entriesPerRegistry; e++) {
+                entries.add(new NbtRegistryEntryData(String.format("benchmark:entry_%05d", e), e, element(random, 3)));
+            }
+            registries.add(new RegistryData(String.format("benchmark:registry_%03d", r), entries));
+        }
+        return registries;
+    }
+
+    /**
+     * Encodes an element as a compound payload, laid out the way CompoundTag.write does
+     */
+    private static byte[] element(Random random, int depth) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeElement(out, random, depth);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeElement(DataOutput out, Random random, int depth) throws IOException {
+        writeHeader(out, TAG_STRING, "name");
+        out.writeUTF("value_" + random.nextInt(1000));
+        writeHeader(out, TAG_INT, "weight");
+        out.writeInt(random.nextInt(100));
+        writeHeader(out, TAG_DOUBLE, "scale");
+        out.writeDouble(random.nextDouble());
+        // Codecs encode booleans as bytes in NBT
+        writeHeader(out, TAG_BYTE, "enabled");
+        out.writeByte(random.nextBoolean() ? 1 : 0);
+
+        writeHeader(out, TAG_LIST, "values");
+        out.writeByte(TAG_FLOAT);
+        out.writeInt(4);
+        for (int i = 0; i < 4; i++) {
+            out.writeFloat(random.nextFloat());
+        }
+        writeHeader(out, TAG_LONG_ARRAY, "seeds");
+        out.writeInt(2);
+        out.writeLong(random.nextLong());
+        out.writeLong(random.nextLong());
+
+        if (depth > 0) {
+            writeHeader(out, TAG_COMPOUND, "child");
+            writeElement(out, random, depth - 1);
+        }
+        out.writeByte(TAG_END);
+    }
+
+    private static void writeHeader(DataOutput out, byte type, String name) throws IOException {
+        out.writeByte(type);
+        out.writeUTF(name);
+    }
+
+    /**
+     * Profile with every block and registry option enabled, so all builder paths are exercised
+     */
+    static ProfileConfig fullProfile() {
+        ProfileConfig profile = new ProfileConfig();
+
+        ProfileConfig.ExportConfig export = new ProfileConfig.ExportConfig();
+        ProfileConfig.JsonConfig json = new ProfileConfig.JsonConfig();
+        json.setPretty(false);
+        export.setJson(json);
+        profile.setExport(export);
+
+        ProfileConfig.BlocksConfig blocks = new ProfileConfig.BlocksConfig();
+        blocks.setProperties(true);
+        blocks.setStates(true);
+        profile.setBlocks(blocks);
+
+        ProfileConfig.RegistriesConfig registries = new ProfileConfig.RegistriesConfig();
+        registries.setCodec(true);
+        profile.setRegistries(registries);
+
+        return profile;
+    }
+
+}
@@ -1,47 +1,49 @@
 package com.tyzeron.datadump;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-
 import com.tyzeron.datadump.abstraction.block.BlockDataProvider;
 import com.tyzeron.datadump.abstraction.block.BlockInfo;
 import com.tyzeron.datadump.abstraction.block.BlockStateInfo;
 import com.tyzeron.datadump.abstraction.block.PropertyInfo;
-import com.tyzeron.datadump.abstraction.nbt.NbtCompound;
-import com.tyzeron.datadump.abstraction.nbt.NbtWriter;
+import com.tyzeron.datadump.binary.BinaryDumpWriter;
 import com.tyzeron.datadump.builder.DataStructureBuilder;
-import com.tyzeron.datadump.builder.JsonDataBuilder;
-import com.tyzeron.datadump.builder.NbtDataBuilder;
+import com.tyzeron.datadump.builder.StreamingJsonDataBuilder;
+import com.tyzeron.datadump.builder.StreamingNbtDataBuilder;
 import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.job.DumpMetrics;
+import com.tyzeron.datadump.job.DumpProgress;
+import com.tyzeron.datadump.job.DumpSnapshot;
+import com.tyzeron.datadump.util.WorkExecutor;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 
 public class BlockDataDump {
 
-    private static final Gson GSON_PRETTY = new GsonBuilder().setPrettyPrinting().create();
-    private static final Gson GSON_MINIFIED = new Gson();
+    /**
+     * Collects all blocks from the platform-specific provider, using the profile's execution options
+     */
+    public static Collection<BlockInfo> collectBlocks(ProfileConfig profile) {
+        BlockDataProvider provider = PlatformHelper.getBlockDataProvider();
+        WorkExecutor executor = WorkExecutor.create(profile, profile.getBlocks().getParallelism());
+        return provider.getAllBlocks(profile.getBlocks(), executor);
+    }
 
     /**
-     * Generates a block data dump according to the specified profile configuration
+     * Generates a block data dump according to the specified profile configuration from the blocks of the run's
+     * snapshot, recording each phase in the metrics
      */
-    public static void generateDump(File outputFile, ProfileConfig profile) throws IOException {
+    public static void generateDump(File outputFile, ProfileConfig profile, DumpSnapshot snapshot, DumpMetrics metrics) throws IOException {
         String format = profile.getExport().getFormat().toLowerCase();
 
-        // Check if format is binary and reject it
-        if ("binary".equals(format)) {
-            throw new IOException("Binary format is not implemented yet");
-        }
-
-        // Get platform-specific block data provider
-        BlockDataProvider provider = PlatformHelper.getBlockDataProvider();
-        Collection<BlockInfo> blocks = provider.getAllBlocks();
+        Collection<BlockInfo> blocks = snapshot.getBlocks();
 
         // Create parent directory if needed
         File parentDir = outputFile.getParentFile();
@@ -50,96 +52,241 @@ public class BlockDataDump {
         }
 
         if ("json".equals(format)) {
-            generateJsonDump(outputFile, profile, blocks);
+            metrics.measure("blocks.write", () -> generateJsonDump(outputFile, profile, blocks));
         } else if ("nbt".equals(format)) {
-            generateNbtDump(outputFile, profile, blocks);
+            metrics.measure("blocks.write", () -> generateNbtDump(outputFile, profile, blocks));
+        } else if ("binary".equals(format)) {
+            generateBinaryDump(outputFile, profile, blocks, metrics);
         } else {
             throw new IOException("Unknown format: " + format);
         }
+        metrics.recordOutput(outputFile);
     }
 
     /**
-     * Common method to build block data structure using any builder implementation
+     * Common method to build block data structure using any builder implementation. The root maps block ids
+     * to blocks, unless property definitions are shared: the root then holds the "property_table" and the
+     * block map under "blocks", so every entry of the block map is a block.
      */
     public static Object buildBlockData(Collection<BlockInfo> blocks, ProfileConfig profile, DataStructureBuilder builder) {
         Object root = builder.createObject();
-        Map<String, Object> sortedBlocks = new TreeMap<>();
+        if (usesPropertyTable(profile)) {
+            buildBlockData(blocks, profile, builder, root, "blocks");
+        } else {
+            addBlocks(sortedById(blocks), profile, builder, root, null);
+        }
+        return root;
+    }
+
+    /**
+     * Builds the block map into an existing object under the given key. When property definitions are shared,
+     * the "property_table" is added to the same object, next to the block map.
+     */
+    public static void buildBlockData(
+            Collection<BlockInfo> blocks, ProfileConfig profile, DataStructureBuilder builder, Object parent, String key
+    ) {
+        List<BlockInfo> sortedBlocks = sortedById(blocks);
+
+        // Property definitions are written once up front when shared, blocks then refer to them by index
+        Map<PropertyInfo, Integer> propertyTable = null;
+        if (usesPropertyTable(profile)) {
+            propertyTable = addPropertyTable(sortedBlocks, builder, parent);
+        }
+
+        Object blockMap = builder.createObject();
+        builder.addToObject(parent, key, blockMap);
+        addBlocks(sortedBlocks, profile, builder, blockMap, propertyTable);
+    }
 
+    /**
+     * Whether the profile writes a property table, which is only the case when block properties are written
+     */
+    private static boolean usesPropertyTable(ProfileConfig profile) {
+        ProfileConfig.BlocksConfig config = profile.getBlocks();
+        return config.isSharedProperties() && (config.isProperties() || (config.isStates() && config.isCompactStates()));
+    }
+
+    private static List<BlockInfo> sortedById(Collection<BlockInfo> blocks) {
+        List<BlockInfo> sortedBlocks = new ArrayList<>(blocks);
+        sortedBlocks.sort(Comparator.comparing(BlockInfo::getIdentifier));
+        return sortedBlocks;
+    }
+
+    /**
+     * Adds every block to the block map. Every container is attached to its parent before it is filled,
+     * so streaming builders can write each block out as soon as it is done.
+     */
+    private static void addBlocks(
+            List<BlockInfo> sortedBlocks, ProfileConfig profile, DataStructureBuilder builder, Object blockMap,
+            Map<PropertyInfo, Integer> propertyTable
+    ) {
         boolean includeProperties = profile.getBlocks().isProperties();
         boolean includeStates = profile.getBlocks().isStates();
+        boolean compactStates = profile.getBlocks().isCompactStates();
 
-        // Iterate through all registered blocks
-        for (BlockInfo blockInfo : blocks) {
+        DumpProgress progress = DumpProgress.current();
+        progress.addEntriesTotal(sortedBlocks.size());
+
+        // Iterate through all registered blocks in sorted order
+        for (BlockInfo blockInfo : sortedBlocks) {
+            progress.checkpoint();
             Object blockData = builder.createObject();
+            builder.addToObject(blockMap, blockInfo.getIdentifier(), blockData);
 
             // Add properties if the block has any and profile includes them
-            if (includeProperties && !blockInfo.getProperties().isEmpty()) {
+            if (includeProperties && !blockInfo.getProperties().isEmpty() && propertyTable != null) {
+                addPropertyReferences(blockInfo.getProperties(), propertyTable, builder, blockData, "properties");
+            } else if (includeProperties && !blockInfo.getProperties().isEmpty()) {
                 Object propertiesObject = builder.createObject();
+                builder.addToObject(blockData, "properties", propertiesObject);
 
                 for (PropertyInfo property : blockInfo.getProperties()) {
                     Object valuesArray = builder.createArray();
+                    builder.addToObject(propertiesObject, property.getName(), valuesArray);
                     for (String value : property.getPossibleValues()) {
                         builder.addStringToArray(valuesArray, value);
                     }
-                    builder.addToObject(propertiesObject, property.getName(), valuesArray);
                 }
-
-                builder.addToObject(blockData, "properties", propertiesObject);
             }
 
-            // Add all possible block states if profile includes them
+            // Add all possible block states if profile includes them, as an id range when they can be derived
             if (includeStates) {
-                Object statesArray = builder.createArray();
-                for (BlockStateInfo state : blockInfo.getStates()) {
-                    Object stateObject = builder.createObject();
-
-                    // Add state ID
-                    builder.addIntProperty(stateObject, "id", state.getStateId());
-
-                    // Add properties for this state
-                    if (!state.getProperties().isEmpty()) {
-                        Object stateProperties = builder.createObject();
-                        for (Map.Entry<String, String> entry : state.getProperties().entrySet()) {
-                            builder.addStringProperty(stateProperties, entry.getKey(), entry.getValue());
-                        }
-                        builder.addToObject(stateObject, "properties", stateProperties);
-                    }
-
-                    // Mark default state
-                    if (state.isDefault()) {
-                        builder.addBooleanProperty(stateObject, "default", true);
+                int firstStateId = compactStates ? blockInfo.getDerivedFirstStateId() : -1;
+                if (firstStateId >= 0) {
+                    addCompactStates(blockInfo, firstStateId, propertyTable, builder, blockData);
+                } else {
+                    if (compactStates) {
+                        DataDump.LOGGER.debug("State ids of {} can not be derived, listing every state", blockInfo.getIdentifier());
                     }
+                    addStateList(blockInfo, builder, blockData);
+                }
+            }
+            progress.entryDone();
+        }
+    }
 
-                    builder.addToArray(statesArray, stateObject);
+    /**
+     * Adds every state of a block with its id, property values and default flag
+     */
+    private static void addStateList(BlockInfo blockInfo, DataStructureBuilder builder, Object blockData) {
+        Object statesArray = builder.createArray();
+        builder.addToObject(blockData, "states", statesArray);
+        List<PropertyInfo> properties = blockInfo.getProperties();
+        for (BlockStateInfo state : blockInfo.getStates()) {
+            Object stateObject = builder.createObject();
+            builder.addToArray(statesArray, stateObject);
+
+            // Add state ID
+            builder.addIntProperty(stateObject, "id", state.getStateId());
+
+            // Add properties for this state
+            if (!properties.isEmpty()) {
+                Object stateProperties = builder.createObject();
+                builder.addToObject(stateObject, "properties", stateProperties);
+                for (int i = 0; i < properties.size(); i++) {
+                    builder.addStringProperty(stateProperties, properties.get(i).getName(), state.getValue(i));
                 }
+            }
 
-                builder.addToObject(blockData, "states", statesArray);
+            // Mark default state
+            if (state.isDefault()) {
+                builder.addBooleanProperty(stateObject, "default", true);
             }
+        }
+    }
 
-            sortedBlocks.put(blockInfo.getIdentifier(), blockData);
+    /**
+     * Adds the states of a block as the first and default state ids plus the ordered properties. The id of
+     * a state is the first id plus the index of its values, counting through every combination of values
+     * in property order with the last property varying fastest.
+     */
+    private static void addCompactStates(
+            BlockInfo blockInfo, int firstStateId, Map<PropertyInfo, Integer> propertyTable,
+            DataStructureBuilder builder, Object blockData
+    ) {
+        Object statesObject = builder.createObject();
+        builder.addToObject(blockData, "states", statesObject);
+        builder.addIntProperty(statesObject, "first_id", firstStateId);
+
+        for (BlockStateInfo state : blockInfo.getStates()) {
+            if (state.isDefault()) {
+                builder.addIntProperty(statesObject, "default_id", state.getStateId());
+                break;
+            }
         }
 
-        // Add all blocks to root object
-        for (Map.Entry<String, Object> entry : sortedBlocks.entrySet()) {
-            builder.addToObject(root, entry.getKey(), entry.getValue());
+        if (!blockInfo.getProperties().isEmpty() && propertyTable != null) {
+            addPropertyReferences(blockInfo.getProperties(), propertyTable, builder, statesObject, "properties");
+        } else if (!blockInfo.getProperties().isEmpty()) {
+            Object propertiesArray = builder.createArray();
+            builder.addToObject(statesObject, "properties", propertiesArray);
+            for (PropertyInfo property : blockInfo.getProperties()) {
+                Object propertyObject = builder.createObject();
+                builder.addToArray(propertiesArray, propertyObject);
+                builder.addStringProperty(propertyObject, "name", property.getName());
+
+                Object valuesArray = builder.createArray();
+                builder.addToObject(propertyObject, "values", valuesArray);
+                for (String value : property.getPossibleValues()) {
+                    builder.addStringToArray(valuesArray, value);
+                }
+            }
         }
+    }
 
-        return root;
+    /**
+     * Adds the "property_table" array with every distinct property definition, in order of first use, to the parent.
+     * Providers share one PropertyInfo per game property, so definitions are told apart by identity.
+     * Returns the table index of each definition.
+     */
+    private static Map<PropertyInfo, Integer> addPropertyTable(List<BlockInfo> blocks, DataStructureBuilder builder, Object parent) {
+        Map<PropertyInfo, Integer> propertyTable = new IdentityHashMap<>();
+        Object tableArray = builder.createArray();
+        builder.addToObject(parent, "property_table", tableArray);
+
+        for (BlockInfo blockInfo : blocks) {
+            for (PropertyInfo property : blockInfo.getProperties()) {
+                if (propertyTable.putIfAbsent(property, propertyTable.size()) != null) {
+                    continue;
+                }
+                Object propertyObject = builder.createObject();
+                builder.addToArray(tableArray, propertyObject);
+                builder.addStringProperty(propertyObject, "name", property.getName());
+
+                Object valuesArray = builder.createArray();
+                builder.addToObject(propertyObject, "values", valuesArray);
+                for (String value : property.getPossibleValues()) {
+                    builder.addStringToArray(valuesArray, value);
+                }
+            }
+        }
+        return propertyTable;
+    }
+
+    /**
+     * Adds the property table indices of a block's properties, in property order
+     */
+    private static void addPropertyReferences(
+            List<PropertyInfo> properties, Map<PropertyInfo, Integer> propertyTable,
+            DataStructureBuilder builder, Object parent, String key
+    ) {
+        Object indicesArray = builder.createArray();
+        builder.addToObject(parent, key, indicesArray);
+        for (PropertyInfo property : properties) {
+            builder.addIntToArray(indicesArray, propertyTable.get(property));
+        }
     }
 
     /**
      * Generates a JSON dump
      */
     private static void generateJsonDump(File outputFile, ProfileConfig profile, Collection<BlockInfo> blocks) throws IOException {
-        JsonDataBuilder builder = new JsonDataBuilder();
-        JsonObject root = (JsonObject) buildBlockData(blocks, profile, builder);
-
-        // Choose GSON instance based on format
         boolean pretty = profile.getExport().getJson() != null && profile.getExport().getJson().isPretty();
-        Gson gson = pretty ? GSON_PRETTY : GSON_MINIFIED;
 
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            gson.toJson(root, writer);
+        try (StreamingJsonDataBuilder builder = StreamingJsonDataBuilder.forFile(outputFile, pretty)) {
+            buildBlockData(blocks, profile, builder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
         DataDump.LOGGER.info("Successfully dumped block data to: {}", outputFile.getAbsolutePath());
     }
@@ -148,18 +295,28 @@ public class BlockDataDump {
      * Generates an NBT dump
      */
     private static void generateNbtDump(File outputFile, ProfileConfig profile, Collection<BlockInfo> blocks) throws IOException {
-        // Get platform-specific NBT writer and create root compound
-        NbtWriter nbtWriter = PlatformHelper.getNbtWriter();
-        NbtCompound root = nbtWriter.createCompound();
-        NbtDataBuilder builder = new NbtDataBuilder(root);
-        buildBlockData(blocks, profile, builder);
-
-        // Write NBT to file
         boolean compressed = profile.getExport().getNbt() != null && profile.getExport().getNbt().isCompressed();
-        nbtWriter.writeNbt(root, outputFile, compressed);
 
+        try (StreamingNbtDataBuilder builder = StreamingNbtDataBuilder.forFile(outputFile, compressed)) {
+            buildBlockData(blocks, profile, builder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
         DataDump.LOGGER.info("Successfully dumped block data to: {} (NBT, compressed: {})", 
             outputFile.getAbsolutePath(), compressed);
     }
 
+    /**
+     * Generates a binary dump
+     */
+    private static void generateBinaryDump(
+            File outputFile, ProfileConfig profile, Collection<BlockInfo> blocks, DumpMetrics metrics
+    ) throws IOException {
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+        metrics.measure("blocks.encode", () -> writer.addBlocks(blocks, profile));
+        metrics.measure("blocks.write", () -> writer.writeTo(outputFile));
+
+        DataDump.LOGGER.info("Successfully dumped block data to: {} (binary)", outputFile.getAbsolutePath());
+    }
+
 }
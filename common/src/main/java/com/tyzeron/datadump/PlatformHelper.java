@@ -1,7 +1,6 @@
 package com.tyzeron.datadump;
 
 import com.tyzeron.datadump.abstraction.block.BlockDataProvider;
-import com.tyzeron.datadump.abstraction.nbt.NbtWriter;
 import com.tyzeron.datadump.abstraction.registry.RegistryDataProvider;
 
 import java.nio.file.Path;
@@ -15,7 +14,6 @@ public class PlatformHelper {
 
     private static BlockDataProvider blockDataProvider;
     private static RegistryDataProvider registryDataProvider;
-    private static NbtWriter nbtWriter;
     private static Path gameDirectory;
     private static Path configDirectory;
 
@@ -41,17 +39,6 @@ public class PlatformHelper {
         return registryDataProvider;
     }
 
-    public static void setNbtWriter(NbtWriter writer) {
-        nbtWriter = writer;
-    }
-
-    public static NbtWriter getNbtWriter() {
-        if (nbtWriter == null) {
-            throw new IllegalStateException("NbtWriter not initialized! Make sure the loader-specific code sets it.");
-        }
-        return nbtWriter;
-    }
-
     public static void setGameDirectory(Path directory) {
         gameDirectory = directory;
     }
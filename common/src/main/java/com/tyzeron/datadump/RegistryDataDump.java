@@ -1,52 +1,117 @@
 package com.tyzeron.datadump;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-
-import com.tyzeron.datadump.abstraction.nbt.NbtCompound;
-import com.tyzeron.datadump.abstraction.nbt.NbtWriter;
 import com.tyzeron.datadump.abstraction.registry.RegistryDataProvider;
 import com.tyzeron.datadump.abstraction.registry.RegistryEntryInfo;
 import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.binary.BinaryDumpWriter;
 import com.tyzeron.datadump.builder.DataStructureBuilder;
-import com.tyzeron.datadump.builder.JsonDataBuilder;
-import com.tyzeron.datadump.builder.NbtDataBuilder;
+import com.tyzeron.datadump.builder.StreamingJsonDataBuilder;
+import com.tyzeron.datadump.builder.StreamingNbtDataBuilder;
 import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.job.DumpMetrics;
+import com.tyzeron.datadump.job.DumpProgress;
+import com.tyzeron.datadump.job.DumpSnapshot;
+import com.tyzeron.datadump.job.RegistryManifest;
+import com.tyzeron.datadump.util.OutputFiles;
+import com.tyzeron.datadump.util.WorkExecutor;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 public class RegistryDataDump {
 
-    private static final Gson GSON_PRETTY = new GsonBuilder().setPrettyPrinting().create();
-    private static final Gson GSON_MINIFIED = new Gson();
+    /**
+     * Collects all registries from the platform-specific provider, using the profile's execution options
+     */
+    public static Collection<RegistryInfo> collectRegistries(ProfileConfig profile) {
+        RegistryDataProvider provider = PlatformHelper.getRegistryDataProvider();
+        int parallelism = profile.getRegistries() != null ? profile.getRegistries().getParallelism() : 1;
+        WorkExecutor executor = WorkExecutor.create(profile, parallelism);
+        return provider.getAllRegistries(profile.getRegistries(), executor);
+    }
 
     /**
-     * Generates a registry data dump according to the specified profile configuration
+     * Generates a registry data dump according to the specified profile configuration from the registries of the run's
+     * snapshot, recording each phase in the metrics
      */
-    public static void generateDump(File outputFile, ProfileConfig profile) throws IOException {
-        String format = profile.getExport().getFormat().toLowerCase();
+    public static void generateDump(File outputFile, ProfileConfig profile, DumpSnapshot snapshot, DumpMetrics metrics) throws IOException {
+        Collection<RegistryInfo> registries = snapshot.getRegistries();
 
-        // Check if format is binary and reject it
-        if ("binary".equals(format)) {
-            throw new IOException("Binary format is not implemented yet");
+        if (registries.isEmpty()) {
+            DataDump.LOGGER.warn("No registries found! Check if server is initialized.");
         }
 
-        // Get platform-specific registry data provider
-        RegistryDataProvider provider = PlatformHelper.getRegistryDataProvider();
-        Collection<RegistryInfo> registries = provider.getAllRegistries();
+        writeRegistries(outputFile, profile, registries, metrics);
+    }
 
-        if (registries.isEmpty()) {
-            DataDump.LOGGER.warn("No registries found! Check if server is initialized.");
+    /**
+     * Generates a registry data dump with one file per registry, at the path of the registry id in the given
+     * directory, e.g. "minecraft/worldgen/biome.json". When hashes of the registries are given, the dump is
+     * incremental: only registries that changed since the last dump into the directory are written, files of
+     * registries that are gone are removed, and the hashes are stored for the next dump.
+     *
+     * @param hashes registry hashes from {@link RegistryManifest#hashRegistries}, or null to write every registry
+     */
+    public static void generateSplitDump(
+            File directory, ProfileConfig profile, DumpSnapshot snapshot, DumpMetrics metrics, Map<String, String> hashes
+    ) throws IOException {
+        Collection<RegistryInfo> registries = snapshot.getRegistries();
+        String format = profile.getExport().getFormat().toLowerCase();
+        File manifestFile = RegistryManifest.sidecarOf(directory);
+
+        RegistryManifest manifest = null;
+        Set<String> changed = null;
+        if (hashes != null) {
+            manifest = new RegistryManifest(RegistryManifest.settingsOf(profile), hashes);
+            RegistryManifest previous = RegistryManifest.read(manifestFile);
+            changed = manifest.changedSince(previous);
+            for (String removed : manifest.removedSince(previous)) {
+                Files.deleteIfExists(splitFile(directory, removed, format).toPath());
+            }
         }
 
+        int written = 0;
+        for (RegistryInfo registry : registries) {
+            File file = splitFile(directory, registry.getRegistryIdentifier(), format);
+            if (changed != null && !changed.contains(registry.getRegistryIdentifier()) && file.isFile()) {
+                continue;
+            }
+            OutputFiles.write(file, temp -> writeRegistries(temp, profile, List.of(registry), metrics));
+            written++;
+        }
+        if (manifest != null) {
+            manifest.writeTo(manifestFile);
+        }
+        DataDump.LOGGER.info("Wrote {} of {} registry files to: {}", written, registries.size(), directory.getAbsolutePath());
+    }
+
+    /**
+     * Gets the file a split dump writes a registry to
+     */
+    private static File splitFile(File directory, String registryId, String format) {
+        int separator = registryId.indexOf(':');
+        String namespace = separator >= 0 ? registryId.substring(0, separator) : "minecraft";
+        String path = registryId.substring(separator + 1);
+        String extension = "binary".equals(format) ? "bin" : format;
+        return new File(new File(directory, namespace), path + "." + extension);
+    }
+
+    /**
+     * Writes registries to a file in the format of the profile
+     */
+    public static void writeRegistries(
+            File outputFile, ProfileConfig profile, Collection<RegistryInfo> registries, DumpMetrics metrics
+    ) throws IOException {
+        String format = profile.getExport().getFormat().toLowerCase();
+
         // Create parent directory if needed
         File parentDir = outputFile.getParentFile();
         if (parentDir != null && !parentDir.exists()) {
@@ -54,12 +119,15 @@ public class RegistryDataDump {
         }
 
         if ("json".equals(format)) {
-            generateJsonDump(outputFile, profile, registries);
+            metrics.measure("registries.write", () -> generateJsonDump(outputFile, profile, registries));
         } else if ("nbt".equals(format)) {
-            generateNbtDump(outputFile, profile, registries);
+            metrics.measure("registries.write", () -> generateNbtDump(outputFile, profile, registries));
+        } else if ("binary".equals(format)) {
+            generateBinaryDump(outputFile, profile, registries, metrics);
         } else {
             throw new IOException("Unknown format: " + format);
         }
+        metrics.recordOutput(outputFile);
     }
 
     /**
@@ -67,24 +135,42 @@ public class RegistryDataDump {
      */
     public static Object buildRegistryData(Collection<RegistryInfo> registries, ProfileConfig profile, DataStructureBuilder builder) {
         Object root = builder.createObject();
+        buildRegistryData(registries, profile, builder, root);
+        return root;
+    }
+
+    /**
+     * Builds registry data into an existing object. Every container is attached to its parent
+     * before it is filled, so streaming builders can write each entry out as soon as it is done.
+     */
+    public static void buildRegistryData(Collection<RegistryInfo> registries, ProfileConfig profile, DataStructureBuilder builder, Object root) {
         boolean includeCodec = profile.getRegistries() != null && profile.getRegistries().isCodec();
 
         // Sort registries by identifier for consistent output
         List<RegistryInfo> sortedRegistries = new ArrayList<>(registries);
         sortedRegistries.sort((a, b) -> a.getRegistryIdentifier().compareTo(b.getRegistryIdentifier()));
 
+        DumpProgress progress = DumpProgress.current();
+        for (RegistryInfo registryInfo : sortedRegistries) {
+            progress.addEntriesTotal(registryInfo.getEntries().size());
+        }
+
         // Iterate through all registries in sorted order
         for (RegistryInfo registryInfo : sortedRegistries) {
             Object registryData = builder.createObject();
+            builder.addToObject(root, registryInfo.getRegistryIdentifier(), registryData);
 
             // Add registry type/name
             builder.addStringProperty(registryData, "type", registryInfo.getRegistryIdentifier());
 
             // Create entries array
             Object entriesArray = builder.createArray();
+            builder.addToObject(registryData, "value", entriesArray);
 
             for (RegistryEntryInfo entry : registryInfo.getEntries()) {
+                progress.checkpoint();
                 Object entryObject = builder.createObject();
+                builder.addToArray(entriesArray, entryObject);
 
                 // Add entry name/identifier
                 builder.addStringProperty(entryObject, "name", entry.getIdentifier());
@@ -92,54 +178,35 @@ public class RegistryDataDump {
                 // Add raw/protocol ID
                 builder.addIntProperty(entryObject, "id", entry.getRawId());
 
-                // Add encoded data if available and profile includes codec
-                if (includeCodec && entry.hasEncodedData()) {
+                // Add encoded data if available and profile includes codec, preferring entries that write it directly
+                if (includeCodec && !entry.writeEncodedData(builder, entryObject, "element") && entry.hasEncodedData()) {
                     Map<String, Object> encodedData = entry.getEncodedData();
                     if (encodedData != null && !encodedData.isEmpty()) {
-                        Object elementObject = buildNestedData(encodedData, builder);
+                        Object elementObject = builder.createObject();
                         builder.addToObject(entryObject, "element", elementObject);
+                        fillObject(elementObject, encodedData, builder);
                     }
                 }
-
-                builder.addToArray(entriesArray, entryObject);
+                progress.entryDone();
             }
-
-            builder.addToObject(registryData, "value", entriesArray);
-
-            // Add this registry directly to root (no intermediate storage)
-            builder.addToObject(root, registryInfo.getRegistryIdentifier(), registryData);
         }
-
-        return root;
     }
 
     /**
-     * Recursively builds nested data structures from a Map
+     * Recursively fills an object with the entries of a Map
      */
-    @SuppressWarnings("unchecked")
-    private static Object buildNestedData(Object data, DataStructureBuilder builder) {
-        if (data instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>) data;
-            Object obj = builder.createObject();
-
-            for (Map.Entry<String, Object> entry : map.entrySet()) {
-                addValueToObject(obj, entry.getKey(), entry.getValue(), builder);
-            }
-
-            return obj;
-        } else if (data instanceof Collection<?> collection) {
-            Object array = builder.createArray();
-
-            for (Object item : collection) {
-                addValueToArray(array, item, builder);
-            }
+    private static void fillObject(Object obj, Map<?, ?> map, DataStructureBuilder builder) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            addValueToObject(obj, String.valueOf(entry.getKey()), entry.getValue(), builder);
+        }
+    }
 
-            return array;
-        } else {
-            // For primitive types at the root level, we can't directly add them
-            // They should always be part of an object or array
-            // This shouldn't happen in normal usage
-            return data;
+    /**
+     * Recursively fills an array with the items of a Collection
+     */
+    private static void fillArray(Object array, Collection<?> collection, DataStructureBuilder builder) {
+        for (Object item : collection) {
+            addValueToArray(array, item, builder);
         }
     }
 
@@ -160,13 +227,15 @@ public class RegistryDataDump {
             case byte[] ba -> builder.addByteArrayProperty(parent, key, ba);
             case int[] ia -> builder.addIntArrayProperty(parent, key, ia);
             case long[] la -> builder.addLongArrayProperty(parent, key, la);
-            case Map map -> {
-                Object nestedObj = buildNestedData(value, builder);
+            case Map<?, ?> map -> {
+                Object nestedObj = builder.createObject();
                 builder.addToObject(parent, key, nestedObj);
+                fillObject(nestedObj, map, builder);
             }
-            case Collection collection -> {
-                Object nestedArray = buildNestedData(value, builder);
+            case Collection<?> collection -> {
+                Object nestedArray = builder.createArray();
                 builder.addToObject(parent, key, nestedArray);
+                fillArray(nestedArray, collection, builder);
             }
             case Number number ->
                 // Handle any other number types as double
@@ -193,13 +262,15 @@ public class RegistryDataDump {
             case byte[] ba -> builder.addByteArrayToArray(array, ba);
             case int[] ia -> builder.addIntArrayToArray(array, ia);
             case long[] la -> builder.addLongArrayToArray(array, la);
-            case Map map -> {
-                Object nestedValue = buildNestedData(value, builder);
+            case Map<?, ?> map -> {
+                Object nestedValue = builder.createObject();
                 builder.addToArray(array, nestedValue);
+                fillObject(nestedValue, map, builder);
             }
-            case Collection collection -> {
-                Object nestedValue = buildNestedData(value, builder);
+            case Collection<?> collection -> {
+                Object nestedValue = builder.createArray();
                 builder.addToArray(array, nestedValue);
+                fillArray(nestedValue, collection, builder);
             }
             case Number number ->
                 // Handle any other number types as double
@@ -214,15 +285,12 @@ public class RegistryDataDump {
      * Generates a JSON dump
      */
     private static void generateJsonDump(File outputFile, ProfileConfig profile, Collection<RegistryInfo> registries) throws IOException {
-        JsonDataBuilder builder = new JsonDataBuilder();
-        JsonObject root = (JsonObject) buildRegistryData(registries, profile, builder);
-
-        // Choose GSON instance based on format
         boolean pretty = profile.getExport().getJson() != null && profile.getExport().getJson().isPretty();
-        Gson gson = pretty ? GSON_PRETTY : GSON_MINIFIED;
 
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            gson.toJson(root, writer);
+        try (StreamingJsonDataBuilder builder = StreamingJsonDataBuilder.forFile(outputFile, pretty)) {
+            buildRegistryData(registries, profile, builder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
         DataDump.LOGGER.info("Successfully dumped registry data to: {}", outputFile.getAbsolutePath());
     }
@@ -231,18 +299,28 @@ public class RegistryDataDump {
      * Generates an NBT dump
      */
     private static void generateNbtDump(File outputFile, ProfileConfig profile, Collection<RegistryInfo> registries) throws IOException {
-        // Get platform-specific NBT writer and create root compound
-        NbtWriter nbtWriter = PlatformHelper.getNbtWriter();
-        NbtCompound root = nbtWriter.createCompound();
-        NbtDataBuilder builder = new NbtDataBuilder(root);
-        buildRegistryData(registries, profile, builder);
-
-        // Write NBT to file
         boolean compressed = profile.getExport().getNbt() != null && profile.getExport().getNbt().isCompressed();
-        nbtWriter.writeNbt(root, outputFile, compressed);
 
+        try (StreamingNbtDataBuilder builder = StreamingNbtDataBuilder.forFile(outputFile, compressed)) {
+            buildRegistryData(registries, profile, builder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
         DataDump.LOGGER.info("Successfully dumped registry data to: {} (NBT, compressed: {})", 
             outputFile.getAbsolutePath(), compressed);
     }
 
+    /**
+     * Generates a binary dump
+     */
+    private static void generateBinaryDump(
+            File outputFile, ProfileConfig profile, Collection<RegistryInfo> registries, DumpMetrics metrics
+    ) throws IOException {
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+        metrics.measure("registries.encode", () -> writer.addRegistries(registries, profile));
+        metrics.measure("registries.write", () -> writer.writeTo(outputFile));
+
+        DataDump.LOGGER.info("Successfully dumped registry data to: {} (binary)", outputFile.getAbsolutePath());
+    }
+
 }
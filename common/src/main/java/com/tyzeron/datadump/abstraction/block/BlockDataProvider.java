@@ -1,5 +1,8 @@
 package com.tyzeron.datadump.abstraction.block;
 
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.util.WorkExecutor;
+
 import java.util.Collection;
 
 
@@ -10,8 +13,10 @@ import java.util.Collection;
 public interface BlockDataProvider {
 
     /**
-     * Get all registered blocks in the game.
+     * Get all registered blocks in the game, in registry order.
+     * @param config Block options of the profile
+     * @param executor Executor used to convert the blocks
      * @return Collection of all blocks
      */
-    Collection<BlockInfo> getAllBlocks();
+    Collection<BlockInfo> getAllBlocks(ProfileConfig.BlocksConfig config, WorkExecutor executor);
 }
@@ -30,4 +30,31 @@ public class BlockInfo {
         return states;
     }
 
+    /**
+     * Checks that the state ids can be derived from the property values, which is how Minecraft numbers
+     * states: every combination of values has a state, and each state id is the id of the first state
+     * plus the state's packed value index. Returns the first state id, or -1 if the ids do not follow this.
+     */
+    public int getDerivedFirstStateId() {
+        if (states.isEmpty()) {
+            return -1;
+        }
+
+        int combinations = 1;
+        for (PropertyInfo property : properties) {
+            combinations *= property.getPossibleValues().size();
+        }
+        if (states.size() != combinations) {
+            return -1;
+        }
+
+        int firstStateId = states.get(0).getStateId() - states.get(0).getValueIndex();
+        for (BlockStateInfo state : states) {
+            if (state.getStateId() - state.getValueIndex() != firstStateId) {
+                return -1;
+            }
+        }
+        return firstStateId;
+    }
+
 }
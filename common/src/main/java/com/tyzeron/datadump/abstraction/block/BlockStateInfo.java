@@ -1,20 +1,49 @@
 package com.tyzeron.datadump.abstraction.block;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 
 /**
  * Platform-agnostic representation of a block state.
+ * <p>
+ * Property values are stored as ordinals into the possible values of the block's properties, packed into
+ * a single mixed-radix index where the last property varies fastest. The property list is shared by all
+ * states of a block, so a state costs a few bytes instead of a map of strings.
  */
 public class BlockStateInfo {
 
     private final int stateId;
-    private final Map<String, String> properties;
+    private final List<PropertyInfo> propertyList;
+    private final int valueIndex;
     private final boolean isDefault;
 
-    public BlockStateInfo(int stateId, Map<String, String> properties, boolean isDefault) {
+    /**
+     * @param properties the properties of the block, shared by all of its states
+     * @param valueOrdinals for each property, the index of this state's value in its possible values
+     */
+    public BlockStateInfo(int stateId, List<PropertyInfo> properties, int[] valueOrdinals, boolean isDefault) {
+        if (valueOrdinals.length != properties.size()) {
+            throw new IllegalArgumentException("Expected " + properties.size() + " value ordinals, got " + valueOrdinals.length);
+        }
+        int index = 0;
+        for (int i = 0; i < valueOrdinals.length; i++) {
+            int valueCount = properties.get(i).getPossibleValues().size();
+            if (valueOrdinals[i] < 0 || valueOrdinals[i] >= valueCount) {
+                throw new IllegalArgumentException("Value ordinal " + valueOrdinals[i] + " out of range for property "
+                    + properties.get(i).getName());
+            }
+            index = index * valueCount + valueOrdinals[i];
+        }
+
         this.stateId = stateId;
-        this.properties = properties;
+        this.propertyList = properties;
+        this.valueIndex = index;
         this.isDefault = isDefault;
     }
 
@@ -22,12 +51,76 @@ public class BlockStateInfo {
         return stateId;
     }
 
+    /**
+     * Packed index of this state's property values, counting through all value combinations
+     * of the block with the last property varying fastest
+     */
+    public int getValueIndex() {
+        return valueIndex;
+    }
+
+    /**
+     * Index of this state's value in the possible values of the property at the given position
+     */
+    public int getValueOrdinal(int propertyIndex) {
+        int index = valueIndex;
+        for (int i = propertyList.size() - 1; i > propertyIndex; i--) {
+            index /= propertyList.get(i).getPossibleValues().size();
+        }
+        return index % propertyList.get(propertyIndex).getPossibleValues().size();
+    }
+
+    /**
+     * Value of the property at the given position for this state
+     */
+    public String getValue(int propertyIndex) {
+        return propertyList.get(propertyIndex).getPossibleValues().get(getValueOrdinal(propertyIndex));
+    }
+
+    /**
+     * Read-only view of the property values of this state, in property order.
+     * Entries are decoded on access, callers that iterate many states should prefer {@link #getValue(int)}.
+     */
     public Map<String, String> getProperties() {
-        return properties;
+        return new PropertiesView();
     }
 
     public boolean isDefault() {
         return isDefault;
     }
 
+    private final class PropertiesView extends AbstractMap<String, String> {
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < propertyList.size();
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(propertyList.get(index).getName(), getValue(index));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return propertyList.size();
+                }
+            };
+        }
+    }
+
 }
@@ -0,0 +1,71 @@
+package com.tyzeron.datadump.abstraction.registry;
+
+import com.tyzeron.datadump.builder.DataStructureBuilder;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+
+/**
+ * RegistryEntryInfo whose element is only encoded when the output is written.
+ * Builders get the element written straight into them; other consumers, and elements the
+ * writer can not handle, get it from a fallback entry that is encoded on first request.
+ */
+public class DeferredRegistryEntryData implements RegistryEntryInfo {
+
+    private final String identifier;
+    private final int rawId;
+    private final ElementWriter writer;
+    private final Supplier<? extends RegistryEntryInfo> fallbackEncoder;
+
+    private RegistryEntryInfo fallback;
+
+    public DeferredRegistryEntryData(String identifier, int rawId, ElementWriter writer,
+                                     Supplier<? extends RegistryEntryInfo> fallbackEncoder) {
+        this.identifier = identifier;
+        this.rawId = rawId;
+        this.writer = writer;
+        this.fallbackEncoder = fallbackEncoder;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public int getRawId() {
+        return rawId;
+    }
+
+    @Override
+    public Map<String, Object> getEncodedData() {
+        return fallback().getEncodedData();
+    }
+
+    @Override
+    public boolean hasEncodedData() {
+        return fallback().hasEncodedData();
+    }
+
+    @Override
+    public boolean writeEncodedData(DataStructureBuilder builder, Object parent, String key) {
+        return writer.write(builder, parent, key) || fallback().writeEncodedData(builder, parent, key);
+    }
+
+    private synchronized RegistryEntryInfo fallback() {
+        if (fallback == null) {
+            fallback = fallbackEncoder.get();
+        }
+        return fallback;
+    }
+
+    /**
+     * Writes an encoded element into a builder, returning false if it could not be written
+     */
+    @FunctionalInterface
+    public interface ElementWriter {
+        boolean write(DataStructureBuilder builder, Object parent, String key);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.tyzeron.datadump.abstraction.registry;
+
+import com.tyzeron.datadump.builder.DataStructureBuilder;
+import com.tyzeron.datadump.util.FieldProjection;
+import com.tyzeron.datadump.util.NbtReader;
+
+import java.util.Map;
+
+
+/**
+ * RegistryEntryInfo that keeps its encoded element as a binary NBT compound payload.
+ * NBT builders get the bytes spliced into the output as they are, other builders
+ * have them replayed without building a Map first.
+ */
+public class NbtRegistryEntryData implements RegistryEntryInfo {
+
+    private final String identifier;
+    private final int rawId;
+    private final byte[] encodedPayload;
+
+    /**
+     * @param encodedPayload the element's compound payload as written by CompoundTag.write, or null
+     */
+    public NbtRegistryEntryData(String identifier, int rawId, byte[] encodedPayload) {
+        this.identifier = identifier;
+        this.rawId = rawId;
+        this.encodedPayload = encodedPayload;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public int getRawId() {
+        return rawId;
+    }
+
+    @Override
+    public Map<String, Object> getEncodedData() {
+        return encodedPayload != null ? NbtReader.readCompound(encodedPayload) : null;
+    }
+
+    @Override
+    public boolean hasEncodedData() {
+        // An empty compound is just the end tag
+        return encodedPayload != null && encodedPayload.length > 1;
+    }
+
+    /**
+     * Returns a copy of this entry whose element only keeps the fields selected by the projection
+     */
+    public NbtRegistryEntryData project(FieldProjection projection) {
+        return hasEncodedData() ? new NbtRegistryEntryData(identifier, rawId, projection.apply(encodedPayload)) : this;
+    }
+
+    @Override
+    public boolean writeEncodedData(DataStructureBuilder builder, Object parent, String key) {
+        if (!hasEncodedData()) {
+            return true;
+        }
+        builder.addCompoundPayload(parent, key, encodedPayload);
+        return true;
+    }
+
+}
@@ -1,5 +1,8 @@
 package com.tyzeron.datadump.abstraction.registry;
 
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.util.WorkExecutor;
+
 import java.util.Collection;
 
 
@@ -9,8 +12,9 @@ import java.util.Collection;
 public interface RegistryDataProvider {
 
     /**
-     * Gets all available registries from the dynamic registry manager
+     * Gets all available registries from the dynamic registry manager, keeping registry and entry order.
+     * Entries are encoded through the given executor; the registry options may be null.
      */
-    Collection<RegistryInfo> getAllRegistries();
+    Collection<RegistryInfo> getAllRegistries(ProfileConfig.RegistriesConfig config, WorkExecutor executor);
 
 }
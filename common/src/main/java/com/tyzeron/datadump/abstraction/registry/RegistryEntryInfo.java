@@ -1,5 +1,7 @@
 package com.tyzeron.datadump.abstraction.registry;
 
+import com.tyzeron.datadump.builder.DataStructureBuilder;
+
 import java.util.Map;
 
 
@@ -29,4 +31,12 @@ public interface RegistryEntryInfo {
      */
     boolean hasEncodedData();
 
+    /**
+     * Writes the encoded data straight into a builder under the given key, without building a Map first.
+     * Returns false if this entry can not do so, callers then fall back to getEncodedData.
+     */
+    default boolean writeEncodedData(DataStructureBuilder builder, Object parent, String key) {
+        return false;
+    }
+
 }
@@ -0,0 +1,319 @@
+package com.tyzeron.datadump.binary;
+
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.block.BlockStateInfo;
+import com.tyzeron.datadump.abstraction.block.PropertyInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryEntryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryEntryInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tyzeron.datadump.binary.BinaryFormat.*;
+
+
+/**
+ * Reads files written by {@link BinaryDumpWriter} back into the platform-agnostic block and registry model,
+ * without needing Gson or an NBT library. Sections are located through the directory and decoded on demand.
+ * Truncated or corrupt files are reported as an {@link IOException}.
+ */
+public class BinaryDumpReader {
+
+    private final Map<Integer, ByteBuffer> sections = new HashMap<>();
+    private final String[] strings;
+
+    public BinaryDumpReader(ByteBuffer data) throws IOException {
+        try {
+            strings = readHeader(data.duplicate());
+        } catch (BufferUnderflowException e) {
+            throw truncated(e);
+        }
+    }
+
+    /**
+     * Reads the directory into the section map and returns the string table
+     */
+    private String[] readHeader(ByteBuffer data) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        data.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary data dump");
+        }
+        int version = data.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary dump version: " + version);
+        }
+
+        int sectionCount = data.get() & 0xFF;
+        for (int i = 0; i < sectionCount; i++) {
+            int id = data.get() & 0xFF;
+            int offset = data.getInt();
+            int length = data.getInt();
+            if (offset < 0 || length < 0 || offset > data.limit() - length) {
+                throw new IOException("Section " + id + " lies outside the binary dump");
+            }
+            sections.put(id, data.duplicate().position(offset).limit(offset + length).slice());
+        }
+
+        ByteBuffer stringSection = section(SECTION_STRINGS);
+        String[] table = new String[readLength(stringSection)];
+        for (int i = 0; i < table.length; i++) {
+            byte[] bytes = new byte[readLength(stringSection)];
+            stringSection.get(bytes);
+            table[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return table;
+    }
+
+    /**
+     * Reads a binary dump file
+     */
+    public static BinaryDumpReader read(File file) throws IOException {
+        return new BinaryDumpReader(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+    }
+
+    public boolean hasBlocks() {
+        return sections.containsKey(SECTION_BLOCKS);
+    }
+
+    public boolean hasRegistries() {
+        return sections.containsKey(SECTION_REGISTRIES);
+    }
+
+    /**
+     * Decodes the blocks section
+     */
+    public List<BlockInfo> readBlocks() throws IOException {
+        ByteBuffer in = section(SECTION_BLOCKS);
+        try {
+            return readBlocks(in);
+        } catch (BufferUnderflowException e) {
+            throw truncated(e);
+        }
+    }
+
+    private List<BlockInfo> readBlocks(ByteBuffer in) throws IOException {
+        int flags = in.get();
+        boolean includeStates = (flags & BLOCKS_STATES) != 0;
+
+        int blockCount = readLength(in);
+        List<BlockInfo> blocks = new ArrayList<>(blockCount);
+        for (int b = 0; b < blockCount; b++) {
+            String identifier = readString(in);
+
+            int propertyCount = readLength(in);
+            List<PropertyInfo> properties = new ArrayList<>(propertyCount);
+            for (int p = 0; p < propertyCount; p++) {
+                String name = readString(in);
+                int valueCount = readLength(in);
+                List<String> values = new ArrayList<>(valueCount);
+                for (int v = 0; v < valueCount; v++) {
+                    values.add(readString(in));
+                }
+                properties.add(new PropertyInfo(name, values));
+            }
+
+            List<BlockStateInfo> states = new ArrayList<>();
+            if (includeStates) {
+                int stateCount = readLength(in);
+                int defaultIndex = readVarInt(in);
+                int stateId = 0;
+                for (int s = 0; s < stateCount; s++) {
+                    stateId += unZigZag(readVarInt(in));
+                    int[] valueOrdinals = new int[propertyCount];
+                    for (int p = 0; p < propertyCount; p++) {
+                        valueOrdinals[p] = readVarInt(in);
+                        if (valueOrdinals[p] < 0 || valueOrdinals[p] >= properties.get(p).getPossibleValues().size()) {
+                            throw new IOException("Value ordinal out of range in binary dump: " + valueOrdinals[p]);
+                        }
+                    }
+                    states.add(new BlockStateInfo(stateId, properties, valueOrdinals, s == defaultIndex));
+                }
+            }
+
+            blocks.add(new BlockInfo(identifier, properties, states));
+        }
+        return blocks;
+    }
+
+    /**
+     * Decodes the registries section, element values are returned as Maps, Lists, boxed primitives and arrays
+     */
+    public List<RegistryInfo> readRegistries() throws IOException {
+        ByteBuffer in = section(SECTION_REGISTRIES);
+        try {
+            return readRegistries(in);
+        } catch (BufferUnderflowException e) {
+            throw truncated(e);
+        }
+    }
+
+    private List<RegistryInfo> readRegistries(ByteBuffer in) throws IOException {
+        boolean includeCodec = (in.get() & REGISTRIES_CODEC) != 0;
+
+        int registryCount = readLength(in);
+        List<RegistryInfo> registries = new ArrayList<>(registryCount);
+        for (int r = 0; r < registryCount; r++) {
+            String registryId = readString(in);
+            int entryCount = readLength(in);
+            List<RegistryEntryInfo> entries = new ArrayList<>(entryCount);
+            for (int e = 0; e < entryCount; e++) {
+                String name = readString(in);
+                int rawId = unZigZag(readVarInt(in));
+                Map<String, Object> element = null;
+                if (includeCodec) {
+                    element = castMap(readValue(in));
+                }
+                entries.add(new RegistryEntryData(name, rawId, element));
+            }
+            registries.add(new RegistryData(registryId, entries));
+        }
+        return registries;
+    }
+
+    private Object readValue(ByteBuffer in) throws IOException {
+        byte type = in.get();
+        switch (type) {
+            case VALUE_NONE:
+                return null;
+            case VALUE_BOOLEAN:
+                return in.get() != 0;
+            case VALUE_BYTE:
+                return in.get();
+            case VALUE_SHORT:
+                return (short) unZigZag(readVarInt(in));
+            case VALUE_INT:
+                return unZigZag(readVarInt(in));
+            case VALUE_LONG:
+                return unZigZag(readVarLong(in));
+            case VALUE_FLOAT:
+                return Float.intBitsToFloat(in.getInt());
+            case VALUE_DOUBLE:
+                return Double.longBitsToDouble(in.getLong());
+            case VALUE_STRING:
+                return readString(in);
+            case VALUE_BYTE_ARRAY: {
+                byte[] array = new byte[readLength(in)];
+                in.get(array);
+                return array;
+            }
+            case VALUE_INT_ARRAY: {
+                int[] array = new int[readLength(in)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = unZigZag(readVarInt(in));
+                }
+                return array;
+            }
+            case VALUE_LONG_ARRAY: {
+                long[] array = new long[readLength(in)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = unZigZag(readVarLong(in));
+                }
+                return array;
+            }
+            case VALUE_LIST: {
+                int size = readLength(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case VALUE_MAP: {
+                int size = readLength(in);
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    map.put(key, readValue(in));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("Unknown value type: " + type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) throws IOException {
+        if (value != null && !(value instanceof Map)) {
+            throw new IOException("Registry element in binary dump is not a map");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private ByteBuffer section(int id) throws IOException {
+        ByteBuffer section = sections.get(id);
+        if (section == null) {
+            throw new IOException("Binary dump has no section " + id);
+        }
+        return section.duplicate();
+    }
+
+    private String readString(ByteBuffer in) throws IOException {
+        int index = readVarInt(in);
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("String index out of range: " + index);
+        }
+        return strings[index];
+    }
+
+    /**
+     * Reads a count or length, which can never be more than the bytes left since every item takes at least one
+     */
+    private static int readLength(ByteBuffer in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Invalid length " + length + " in binary dump");
+        }
+        return length;
+    }
+
+    private static IOException truncated(BufferUnderflowException e) {
+        return new IOException("Truncated binary dump", e);
+    }
+
+    private static int readVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt is too long");
+    }
+
+    private static long readVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarLong is too long");
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
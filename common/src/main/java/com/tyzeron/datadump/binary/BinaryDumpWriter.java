@@ -0,0 +1,566 @@
+package com.tyzeron.datadump.binary;
+
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.block.BlockStateInfo;
+import com.tyzeron.datadump.abstraction.block.PropertyInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryEntryInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.builder.DataStructureBuilder;
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.job.DumpProgress;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tyzeron.datadump.binary.BinaryFormat.*;
+
+
+/**
+ * Writes block and registry data in the compact binary format described in {@link BinaryFormat}.
+ * Sections are encoded in memory as they are added, then written out behind the directory and string table.
+ * Elements that can write themselves into a builder, such as NBT payloads, are encoded straight from it
+ * without building a Map first.
+ */
+public class BinaryDumpWriter {
+
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<Integer, SectionBuffer> sections = new LinkedHashMap<>();
+    private final ValueEncoder valueEncoder = new ValueEncoder();
+
+    /**
+     * Encodes the blocks section
+     */
+    public void addBlocks(Collection<BlockInfo> blocks, ProfileConfig profile) {
+        boolean includeStates = profile.getBlocks().isStates();
+        // State values are stored as ordinals, so the property definitions are needed to decode them
+        boolean includeProperties = profile.getBlocks().isProperties() || includeStates;
+
+        List<BlockInfo> sortedBlocks = new ArrayList<>(blocks);
+        sortedBlocks.sort(Comparator.comparing(BlockInfo::getIdentifier));
+
+        SectionBuffer out = new SectionBuffer();
+        out.write((includeProperties ? BLOCKS_PROPERTIES : 0) | (includeStates ? BLOCKS_STATES : 0));
+        out.writeVarInt(sortedBlocks.size());
+
+        DumpProgress progress = DumpProgress.current();
+        progress.addEntriesTotal(sortedBlocks.size());
+        for (BlockInfo blockInfo : sortedBlocks) {
+            progress.checkpoint();
+            out.writeVarInt(stringIndex(blockInfo.getIdentifier()));
+
+            List<PropertyInfo> properties = includeProperties ? blockInfo.getProperties() : List.of();
+            out.writeVarInt(properties.size());
+            for (PropertyInfo property : properties) {
+                out.writeVarInt(stringIndex(property.getName()));
+                out.writeVarInt(property.getPossibleValues().size());
+                for (String value : property.getPossibleValues()) {
+                    out.writeVarInt(stringIndex(value));
+                }
+            }
+
+            if (includeStates) {
+                writeStates(out, blockInfo);
+            }
+            progress.entryDone();
+        }
+
+        sections.put(SECTION_BLOCKS, out);
+    }
+
+    /**
+     * Encodes the registries section
+     */
+    public void addRegistries(Collection<RegistryInfo> registries, ProfileConfig profile) {
+        boolean includeCodec = profile.getRegistries() != null && profile.getRegistries().isCodec();
+
+        List<RegistryInfo> sortedRegistries = new ArrayList<>(registries);
+        sortedRegistries.sort(Comparator.comparing(RegistryInfo::getRegistryIdentifier));
+
+        SectionBuffer out = new SectionBuffer();
+        out.write(includeCodec ? REGISTRIES_CODEC : 0);
+        out.writeVarInt(sortedRegistries.size());
+
+        DumpProgress progress = DumpProgress.current();
+        for (RegistryInfo registryInfo : sortedRegistries) {
+            progress.addEntriesTotal(registryInfo.getEntries().size());
+        }
+        for (RegistryInfo registryInfo : sortedRegistries) {
+            out.writeVarInt(stringIndex(registryInfo.getRegistryIdentifier()));
+            out.writeVarInt(registryInfo.getEntries().size());
+
+            for (RegistryEntryInfo entry : registryInfo.getEntries()) {
+                progress.checkpoint();
+                out.writeVarInt(stringIndex(entry.getIdentifier()));
+                out.writeVarInt(zigZag(entry.getRawId()));
+                if (includeCodec) {
+                    writeElement(out, entry);
+                }
+                progress.entryDone();
+            }
+        }
+
+        sections.put(SECTION_REGISTRIES, out);
+    }
+
+    /**
+     * Writes the header, directory, string table and all added sections to a file
+     */
+    public void writeTo(File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Writes the header, directory, string table and all added sections to a stream
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        SectionBuffer stringSection = new SectionBuffer();
+        stringSection.writeVarInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            stringSection.writeVarInt(bytes.length);
+            stringSection.write(bytes, 0, bytes.length);
+        }
+
+        Map<Integer, SectionBuffer> allSections = new LinkedHashMap<>();
+        allSections.put(SECTION_STRINGS, stringSection);
+        allSections.putAll(sections);
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(allSections.size());
+
+        long offset = MAGIC.length + 2 + (long) allSections.size() * DIRECTORY_ENTRY_SIZE;
+        for (Map.Entry<Integer, SectionBuffer> section : allSections.entrySet()) {
+            out.writeByte(section.getKey());
+            out.writeInt((int) offset);
+            out.writeInt(section.getValue().size());
+            offset += section.getValue().size();
+        }
+        for (SectionBuffer section : allSections.values()) {
+            section.writeTo(out);
+        }
+        out.flush();
+    }
+
+    private void writeStates(SectionBuffer out, BlockInfo blockInfo) {
+        int propertyCount = blockInfo.getProperties().size();
+        List<BlockStateInfo> states = blockInfo.getStates();
+        int defaultIndex = 0;
+        for (int i = 0; i < states.size(); i++) {
+            if (states.get(i).isDefault()) {
+                defaultIndex = i;
+                break;
+            }
+        }
+        out.writeVarInt(states.size());
+        out.writeVarInt(defaultIndex);
+
+        int previousId = 0;
+        for (BlockStateInfo state : states) {
+            out.writeVarInt(zigZag(state.getStateId() - previousId));
+            previousId = state.getStateId();
+            for (int i = 0; i < propertyCount; i++) {
+                out.writeVarInt(state.getValueOrdinal(i));
+            }
+        }
+    }
+
+    /**
+     * Writes the element of a registry entry. Entries that write themselves into a builder go through the
+     * value encoder, others are written from their Map.
+     */
+    private void writeElement(SectionBuffer out, RegistryEntryInfo entry) {
+        Container slot = new Container(false);
+        if (entry.writeEncodedData(valueEncoder, slot, "element")) {
+            if (slot.size == 0) {
+                out.write(VALUE_NONE);
+            } else {
+                slot.writeParts(out);
+            }
+            return;
+        }
+
+        Map<String, Object> encodedData = entry.hasEncodedData() ? entry.getEncodedData() : null;
+        if (encodedData != null && !encodedData.isEmpty()) {
+            writeValue(out, encodedData);
+        } else {
+            out.write(VALUE_NONE);
+        }
+    }
+
+    /**
+     * Writes a typed element value, using the same type mapping as the JSON/NBT builders
+     */
+    private void writeValue(SectionBuffer out, Object value) {
+        switch (value) {
+            case null -> writeString(out, "null");
+            case String s -> writeString(out, s);
+            case Boolean b -> writeBoolean(out, b);
+            case Byte b -> writeByte(out, b);
+            case Short s -> writeShort(out, s);
+            case Integer i -> writeInt(out, i);
+            case Long l -> writeLong(out, l);
+            case Float f -> writeFloat(out, f);
+            case Double d -> writeDouble(out, d);
+            case byte[] ba -> writeByteArray(out, ba);
+            case int[] ia -> writeIntArray(out, ia);
+            case long[] la -> writeLongArray(out, la);
+            case Map<?, ?> map -> {
+                out.write(VALUE_MAP);
+                out.writeVarInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    out.writeVarInt(stringIndex(String.valueOf(entry.getKey())));
+                    writeValue(out, entry.getValue());
+                }
+            }
+            case Collection<?> collection -> {
+                out.write(VALUE_LIST);
+                out.writeVarInt(collection.size());
+                for (Object item : collection) {
+                    writeValue(out, item);
+                }
+            }
+            // Handle any other number types as double
+            case Number number -> writeDouble(out, number.doubleValue());
+            // For any other type, convert to string
+            default -> writeString(out, value.toString());
+        }
+    }
+
+    private void writeString(SectionBuffer out, String value) {
+        out.write(VALUE_STRING);
+        out.writeVarInt(stringIndex(value));
+    }
+
+    private void writeBoolean(SectionBuffer out, boolean value) {
+        out.write(VALUE_BOOLEAN);
+        out.write(value ? 1 : 0);
+    }
+
+    private void writeByte(SectionBuffer out, byte value) {
+        out.write(VALUE_BYTE);
+        out.write(value);
+    }
+
+    private void writeShort(SectionBuffer out, short value) {
+        out.write(VALUE_SHORT);
+        out.writeVarInt(zigZag(value));
+    }
+
+    private void writeInt(SectionBuffer out, int value) {
+        out.write(VALUE_INT);
+        out.writeVarInt(zigZag(value));
+    }
+
+    private void writeLong(SectionBuffer out, long value) {
+        out.write(VALUE_LONG);
+        out.writeVarLong(zigZag(value));
+    }
+
+    private void writeFloat(SectionBuffer out, float value) {
+        out.write(VALUE_FLOAT);
+        out.writeInt(Float.floatToRawIntBits(value));
+    }
+
+    private void writeDouble(SectionBuffer out, double value) {
+        out.write(VALUE_DOUBLE);
+        out.writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    private void writeByteArray(SectionBuffer out, byte[] value) {
+        out.write(VALUE_BYTE_ARRAY);
+        out.writeVarInt(value.length);
+        out.write(value, 0, value.length);
+    }
+
+    private void writeIntArray(SectionBuffer out, int[] value) {
+        out.write(VALUE_INT_ARRAY);
+        out.writeVarInt(value.length);
+        for (int i : value) {
+            out.writeVarInt(zigZag(i));
+        }
+    }
+
+    private void writeLongArray(SectionBuffer out, long[] value) {
+        out.write(VALUE_LONG_ARRAY);
+        out.writeVarInt(value.length);
+        for (long l : value) {
+            out.writeVarLong(zigZag(l));
+        }
+    }
+
+    private int stringIndex(String value) {
+        Integer index = stringIndices.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndices.put(value, index);
+        }
+        return index;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * In-memory buffer for one section with varint helpers
+     */
+    private static final class SectionBuffer extends ByteArrayOutputStream {
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        private void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        private void append(SectionBuffer other) {
+            write(other.buf, 0, other.count);
+        }
+    }
+
+    /**
+     * Encodes element values as they are written through the builder methods. Maps and lists put their size
+     * in front of their entries, so each container keeps its encoded entries until the element is written out.
+     */
+    private final class ValueEncoder implements DataStructureBuilder {
+
+        @Override
+        public Object createObject() {
+            return new Container(true);
+        }
+
+        @Override
+        public Object createArray() {
+            return new Container(false);
+        }
+
+        @Override
+        public void addToObject(Object parent, String key, Object value) {
+            addContainer(entry(parent, key), parent, value);
+        }
+
+        @Override
+        public void addToArray(Object array, Object value) {
+            addContainer(element(array), array, value);
+        }
+
+        @Override
+        public void addByteProperty(Object parent, String key, byte value) {
+            writeByte(entry(parent, key), value);
+        }
+
+        @Override
+        public void addShortProperty(Object parent, String key, short value) {
+            writeShort(entry(parent, key), value);
+        }
+
+        @Override
+        public void addIntProperty(Object parent, String key, int value) {
+            writeInt(entry(parent, key), value);
+        }
+
+        @Override
+        public void addLongProperty(Object parent, String key, long value) {
+            writeLong(entry(parent, key), value);
+        }
+
+        @Override
+        public void addFloatProperty(Object parent, String key, float value) {
+            writeFloat(entry(parent, key), value);
+        }
+
+        @Override
+        public void addDoubleProperty(Object parent, String key, double value) {
+            writeDouble(entry(parent, key), value);
+        }
+
+        @Override
+        public void addStringProperty(Object parent, String key, String value) {
+            writeString(entry(parent, key), value);
+        }
+
+        @Override
+        public void addByteArrayProperty(Object parent, String key, byte[] value) {
+            writeByteArray(entry(parent, key), value);
+        }
+
+        @Override
+        public void addIntArrayProperty(Object parent, String key, int[] value) {
+            writeIntArray(entry(parent, key), value);
+        }
+
+        @Override
+        public void addLongArrayProperty(Object parent, String key, long[] value) {
+            writeLongArray(entry(parent, key), value);
+        }
+
+        @Override
+        public void addBooleanProperty(Object parent, String key, boolean value) {
+            writeBoolean(entry(parent, key), value);
+        }
+
+        @Override
+        public void addByteToArray(Object array, byte value) {
+            writeByte(element(array), value);
+        }
+
+        @Override
+        public void addShortToArray(Object array, short value) {
+            writeShort(element(array), value);
+        }
+
+        @Override
+        public void addIntToArray(Object array, int value) {
+            writeInt(element(array), value);
+        }
+
+        @Override
+        public void addLongToArray(Object array, long value) {
+            writeLong(element(array), value);
+        }
+
+        @Override
+        public void addFloatToArray(Object array, float value) {
+            writeFloat(element(array), value);
+        }
+
+        @Override
+        public void addDoubleToArray(Object array, double value) {
+            writeDouble(element(array), value);
+        }
+
+        @Override
+        public void addStringToArray(Object array, String value) {
+            writeString(element(array), value);
+        }
+
+        @Override
+        public void addByteArrayToArray(Object array, byte[] value) {
+            writeByteArray(element(array), value);
+        }
+
+        @Override
+        public void addIntArrayToArray(Object array, int[] value) {
+            writeIntArray(element(array), value);
+        }
+
+        @Override
+        public void addLongArrayToArray(Object array, long[] value) {
+            writeLongArray(element(array), value);
+        }
+
+        /**
+         * Starts an entry of an object, writing its key unless the object is an element slot
+         */
+        private SectionBuffer entry(Object parent, String key) {
+            Container container = (Container) parent;
+            SectionBuffer out = container.append();
+            if (container.map) {
+                out.writeVarInt(stringIndex(key));
+            }
+            return out;
+        }
+
+        private SectionBuffer element(Object array) {
+            return ((Container) array).append();
+        }
+
+        private void addContainer(SectionBuffer out, Object parent, Object value) {
+            Container child = (Container) value;
+            out.write(child.map ? VALUE_MAP : VALUE_LIST);
+            ((Container) parent).nest(child);
+        }
+    }
+
+    /**
+     * A map or list being encoded, its entries are buffers of encoded values and the nested containers between them
+     */
+    private static final class Container {
+
+        private final boolean map;
+        private final List<Object> parts = new ArrayList<>();
+        private SectionBuffer tail;
+        private int size;
+
+        private Container(boolean map) {
+            this.map = map;
+        }
+
+        /**
+         * Counts a new entry and gets the buffer it is written to
+         */
+        private SectionBuffer append() {
+            size++;
+            if (tail == null) {
+                tail = new SectionBuffer();
+                parts.add(tail);
+            }
+            return tail;
+        }
+
+        private void nest(Container child) {
+            parts.add(child);
+            tail = null;
+        }
+
+        private void writeTo(SectionBuffer out) {
+            out.writeVarInt(size);
+            writeParts(out);
+        }
+
+        private void writeParts(SectionBuffer out) {
+            for (Object part : parts) {
+                if (part instanceof Container container) {
+                    container.writeTo(out);
+                } else {
+                    out.append((SectionBuffer) part);
+                }
+            }
+        }
+    }
+
+}
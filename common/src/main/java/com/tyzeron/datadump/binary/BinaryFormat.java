@@ -0,0 +1,62 @@
+package com.tyzeron.datadump.binary;
+
+
+/**
+ * Constants describing the compact binary dump format.
+ * <p>
+ * Layout (all multi-byte fixed-width numbers are big-endian):
+ * <pre>
+ * header     magic "DDMP", u8 version, u8 section count
+ * directory  per section: u8 section id, u32 absolute offset, u32 length
+ * STRINGS    varint count, then per string: varint byte length + UTF-8 bytes
+ * BLOCKS     u8 flags, varint block count, then per block:
+ *              varint identifier, varint property count,
+ *              per property: varint name, varint value count, varint value per value
+ *              if states are included: varint state count, varint default state index,
+ *              per state: zigzag varint id delta from the previous state (from 0 for the first),
+ *              varint value ordinal per property
+ * REGISTRIES u8 flags, varint registry count, then per registry:
+ *              varint identifier, varint entry count,
+ *              per entry: varint name, zigzag varint raw id, element value if codecs are included
+ * </pre>
+ * Strings are referenced everywhere by their varint index in the STRINGS section.
+ * Element values are a type byte followed by the payload; type ids mirror NBT where possible.
+ */
+public final class BinaryFormat {
+
+    public static final byte[] MAGIC = {'D', 'D', 'M', 'P'};
+    public static final int VERSION = 1;
+    public static final int DIRECTORY_ENTRY_SIZE = 9;
+
+    // Section ids
+    public static final int SECTION_STRINGS = 0;
+    public static final int SECTION_BLOCKS = 1;
+    public static final int SECTION_REGISTRIES = 2;
+
+    // Block section flags
+    public static final int BLOCKS_PROPERTIES = 1;
+    public static final int BLOCKS_STATES = 1 << 1;
+
+    // Registry section flags
+    public static final int REGISTRIES_CODEC = 1;
+
+    // Element value types
+    public static final byte VALUE_NONE = 0;
+    public static final byte VALUE_BYTE = 1;
+    public static final byte VALUE_SHORT = 2;
+    public static final byte VALUE_INT = 3;
+    public static final byte VALUE_LONG = 4;
+    public static final byte VALUE_FLOAT = 5;
+    public static final byte VALUE_DOUBLE = 6;
+    public static final byte VALUE_BYTE_ARRAY = 7;
+    public static final byte VALUE_STRING = 8;
+    public static final byte VALUE_LIST = 9;
+    public static final byte VALUE_MAP = 10;
+    public static final byte VALUE_INT_ARRAY = 11;
+    public static final byte VALUE_LONG_ARRAY = 12;
+    public static final byte VALUE_BOOLEAN = 13;
+
+    private BinaryFormat() {
+    }
+
+}
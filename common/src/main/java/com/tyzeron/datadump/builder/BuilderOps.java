@@ -0,0 +1,513 @@
+package com.tyzeron.datadump.builder;
+
+import com.mojang.datafixers.DataFixUtils;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.MapLike;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+
+/**
+ * DynamicOps that encodes straight into a DataStructureBuilder, so codecs need no intermediate NBT tree.
+ * <p>
+ * Codecs build values bottom-up, so maps are created as detached builder objects and only reach the output
+ * once {@link #attach} adds the finished value to a parent. Values follow what the NbtOps path produces:
+ * booleans become bytes, lists of bytes, ints or longs become arrays and mixed lists wrap their
+ * elements in compounds. Encoded maps can not be read back, codecs that need to do so fail with an error.
+ * Removing from or converting an encoded map is not possible either, and neither is replacing a key that was
+ * already written. Such values are marked as {@link #getUnsupported() unsupported} so callers can encode them
+ * another way instead of attaching them.
+ */
+public class BuilderOps implements DynamicOps<Object> {
+
+    // NbtOps uses the end tag as empty value, which the NbtOps path writes as its string form
+    private static final Object EMPTY = new Object();
+    private static final String EMPTY_STRING = "END";
+
+    private final DataStructureBuilder builder;
+    private String unsupported;
+
+    public BuilderOps(DataStructureBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Attaches an encoded value to a parent object. Values that are not maps are wrapped as {"value": ...},
+     * empty maps are left out entirely.
+     */
+    public void attach(Object parent, String key, Object value) {
+        if (value instanceof MapValue map) {
+            if (!map.keys.isEmpty()) {
+                builder.addToObject(parent, key, map.commit());
+            }
+            return;
+        }
+        Object wrapper = builder.createObject();
+        builder.addToObject(parent, key, wrapper);
+        putValue(wrapper, "value", value);
+    }
+
+    /**
+     * Gets why the values encoded so far are incomplete, or null if every operation was supported
+     */
+    public String getUnsupported() {
+        return unsupported;
+    }
+
+    @Override
+    public Object empty() {
+        return EMPTY;
+    }
+
+    @Override
+    public Object createNumeric(Number i) {
+        return i.doubleValue();
+    }
+
+    @Override
+    public Object createByte(byte value) {
+        return value;
+    }
+
+    @Override
+    public Object createShort(short value) {
+        return value;
+    }
+
+    @Override
+    public Object createInt(int value) {
+        return value;
+    }
+
+    @Override
+    public Object createLong(long value) {
+        return value;
+    }
+
+    @Override
+    public Object createFloat(float value) {
+        return value;
+    }
+
+    @Override
+    public Object createDouble(double value) {
+        return value;
+    }
+
+    @Override
+    public Object createBoolean(boolean value) {
+        return (byte) (value ? 1 : 0);
+    }
+
+    @Override
+    public Object createString(String value) {
+        return value;
+    }
+
+    @Override
+    public Object createByteList(ByteBuffer input) {
+        return DataFixUtils.toArray(input);
+    }
+
+    @Override
+    public Object createIntList(IntStream input) {
+        return input.toArray();
+    }
+
+    @Override
+    public Object createLongList(LongStream input) {
+        return input.toArray();
+    }
+
+    @Override
+    public Object createList(Stream<Object> input) {
+        ListValue list = new ListValue();
+        input.forEach(list.elements::add);
+        return list;
+    }
+
+    @Override
+    public DataResult<Object> mergeToList(Object list, Object value) {
+        ListValue target = toList(list);
+        if (target == null) {
+            return DataResult.error(() -> "mergeToList called with not a list: " + list, list);
+        }
+        target.elements.add(value);
+        return DataResult.success(target);
+    }
+
+    @Override
+    public DataResult<Object> mergeToList(Object list, List<Object> values) {
+        ListValue target = toList(list);
+        if (target == null) {
+            return DataResult.error(() -> "mergeToList called with not a list: " + list, list);
+        }
+        target.elements.addAll(values);
+        return DataResult.success(target);
+    }
+
+    @Override
+    public Object createMap(Stream<Pair<Object, Object>> map) {
+        MapValue target = new MapValue(builder.createObject());
+        map.forEach(pair -> put(target, String.valueOf(pair.getFirst()), pair.getSecond()));
+        return target;
+    }
+
+    @Override
+    public DataResult<Object> mergeToMap(Object map, Object key, Object value) {
+        MapValue target = toMap(map);
+        if (target == null) {
+            return DataResult.error(() -> "mergeToMap called with not a map: " + map, map);
+        }
+        if (!(key instanceof String name)) {
+            return DataResult.error(() -> "key is not a string: " + key, map);
+        }
+        if (!put(target, name, value)) {
+            return DataResult.error(() -> "duplicate key: " + name, target);
+        }
+        return DataResult.success(target);
+    }
+
+    @Override
+    public DataResult<Object> mergeToMap(Object map, MapLike<Object> values) {
+        MapValue target = toMap(map);
+        if (target == null) {
+            return DataResult.error(() -> "mergeToMap called with not a map: " + map, map);
+        }
+        List<Object> missed = new ArrayList<>();
+        List<String> duplicates = new ArrayList<>();
+        values.entries().forEach(pair -> {
+            if (!(pair.getFirst() instanceof String name)) {
+                missed.add(pair.getFirst());
+            } else if (!put(target, name, pair.getSecond())) {
+                duplicates.add(name);
+            }
+        });
+        if (!missed.isEmpty()) {
+            return DataResult.error(() -> "some keys are not strings: " + missed, target);
+        }
+        if (!duplicates.isEmpty()) {
+            return DataResult.error(() -> "duplicate keys: " + duplicates, target);
+        }
+        return DataResult.success(target);
+    }
+
+    @Override
+    public DataResult<Number> getNumberValue(Object input) {
+        if (input instanceof Number number) {
+            return DataResult.success(number);
+        }
+        return DataResult.error(() -> "Not a number: " + input);
+    }
+
+    @Override
+    public DataResult<String> getStringValue(Object input) {
+        if (input instanceof String string) {
+            return DataResult.success(string);
+        }
+        return DataResult.error(() -> "Not a string: " + input);
+    }
+
+    @Override
+    public DataResult<Stream<Pair<Object, Object>>> getMapValues(Object input) {
+        return DataResult.error(() -> "Encoded maps can not be read back: " + input);
+    }
+
+    @Override
+    public DataResult<Stream<Object>> getStream(Object input) {
+        if (input instanceof ListValue list) {
+            return DataResult.success(new ArrayList<>(list.elements).stream());
+        }
+        ListValue array = input == EMPTY ? null : toList(input);
+        if (array == null) {
+            return DataResult.error(() -> "Not a list: " + input);
+        }
+        return DataResult.success(array.elements.stream());
+    }
+
+    @Override
+    public Object remove(Object input, String key) {
+        // Entries are already in the builder, only removing a key that was never added leaves the map as it should be
+        if (input instanceof MapValue map && map.keys.contains(key) && unsupported == null) {
+            unsupported = "Can not remove '" + key + "' from an encoded map";
+        }
+        return input;
+    }
+
+    @Override
+    public <U> U convertTo(DynamicOps<U> outOps, Object input) {
+        return switch (input) {
+            case String s -> outOps.createString(s);
+            case Byte b -> outOps.createByte(b);
+            case Short s -> outOps.createShort(s);
+            case Integer i -> outOps.createInt(i);
+            case Long l -> outOps.createLong(l);
+            case Float f -> outOps.createFloat(f);
+            case Double d -> outOps.createDouble(d);
+            case byte[] ba -> outOps.createByteList(ByteBuffer.wrap(ba));
+            case int[] ia -> outOps.createIntList(Arrays.stream(ia));
+            case long[] la -> outOps.createLongList(Arrays.stream(la));
+            case ListValue list -> outOps.createList(list.elements.stream().map(element -> convertTo(outOps, element)));
+            case MapValue map -> {
+                if (unsupported == null) {
+                    unsupported = "Can not convert an encoded map";
+                }
+                yield outOps.empty();
+            }
+            default -> outOps.empty();
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "DataStructureBuilder";
+    }
+
+    /**
+     * Writes an entry to a map, returning false if the key was already written. NbtOps would replace the
+     * earlier value, which is in the builder already, so the map is marked as unsupported instead.
+     */
+    private boolean put(MapValue map, String key, Object value) {
+        if (!map.keys.add(key)) {
+            if (unsupported == null) {
+                unsupported = "Can not replace '" + key + "' in an encoded map";
+            }
+            return false;
+        }
+        putValue(map.node, key, value);
+        return true;
+    }
+
+    private MapValue toMap(Object value) {
+        if (value == EMPTY) {
+            return new MapValue(builder.createObject());
+        }
+        if (value instanceof MapValue map && !map.committed) {
+            return map;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a list that can be added to, arrays are turned back into lists like NbtOps does
+     */
+    private static ListValue toList(Object value) {
+        ListValue list;
+        switch (value) {
+            case ListValue existing -> {
+                return existing.committed ? null : existing;
+            }
+            case byte[] ba -> {
+                list = new ListValue();
+                for (byte b : ba) {
+                    list.elements.add(b);
+                }
+            }
+            case int[] ia -> {
+                list = new ListValue();
+                for (int i : ia) {
+                    list.elements.add(i);
+                }
+            }
+            case long[] la -> {
+                list = new ListValue();
+                for (long l : la) {
+                    list.elements.add(l);
+                }
+            }
+            default -> {
+                return value == EMPTY ? new ListValue() : null;
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Adds a value to an object, handling different types appropriately
+     */
+    private void putValue(Object parent, String key, Object value) {
+        switch (value) {
+            case String s -> builder.addStringProperty(parent, key, s);
+            case Byte b -> builder.addByteProperty(parent, key, b);
+            case Short s -> builder.addShortProperty(parent, key, s);
+            case Integer i -> builder.addIntProperty(parent, key, i);
+            case Long l -> builder.addLongProperty(parent, key, l);
+            case Float f -> builder.addFloatProperty(parent, key, f);
+            case Double d -> builder.addDoubleProperty(parent, key, d);
+            case byte[] ba -> builder.addByteArrayProperty(parent, key, ba);
+            case int[] ia -> builder.addIntArrayProperty(parent, key, ia);
+            case long[] la -> builder.addLongArrayProperty(parent, key, la);
+            case MapValue map -> builder.addToObject(parent, key, map.commit());
+            case ListValue list -> {
+                switch (list.commit()) {
+                    case byte[] ba -> builder.addByteArrayProperty(parent, key, ba);
+                    case int[] ia -> builder.addIntArrayProperty(parent, key, ia);
+                    case long[] la -> builder.addLongArrayProperty(parent, key, la);
+                    default -> {
+                        Object array = builder.createArray();
+                        builder.addToObject(parent, key, array);
+                        fillArray(array, list);
+                    }
+                }
+            }
+            default -> builder.addStringProperty(parent, key, EMPTY_STRING);
+        }
+    }
+
+    /**
+     * Adds a value to an array, handling different types appropriately
+     */
+    private void addValue(Object array, Object value) {
+        switch (value) {
+            case String s -> builder.addStringToArray(array, s);
+            case Byte b -> builder.addByteToArray(array, b);
+            case Short s -> builder.addShortToArray(array, s);
+            case Integer i -> builder.addIntToArray(array, i);
+            case Long l -> builder.addLongToArray(array, l);
+            case Float f -> builder.addFloatToArray(array, f);
+            case Double d -> builder.addDoubleToArray(array, d);
+            case byte[] ba -> builder.addByteArrayToArray(array, ba);
+            case int[] ia -> builder.addIntArrayToArray(array, ia);
+            case long[] la -> builder.addLongArrayToArray(array, la);
+            case MapValue map -> builder.addToArray(array, map.commit());
+            case ListValue list -> {
+                switch (list.commit()) {
+                    case byte[] ba -> builder.addByteArrayToArray(array, ba);
+                    case int[] ia -> builder.addIntArrayToArray(array, ia);
+                    case long[] la -> builder.addLongArrayToArray(array, la);
+                    default -> {
+                        Object nestedArray = builder.createArray();
+                        builder.addToArray(array, nestedArray);
+                        fillArray(nestedArray, list);
+                    }
+                }
+            }
+            default -> builder.addStringToArray(array, EMPTY_STRING);
+        }
+    }
+
+    /**
+     * Fills an array with the elements of a list. Mixed lists wrap every element that is not a
+     * plain map as {"": element}, the same way NbtOps stores them in a ListTag.
+     */
+    private void fillArray(Object array, ListValue list) {
+        boolean heterogeneous = !list.isHomogeneous();
+        for (Object element : list.elements) {
+            if (heterogeneous && !(element instanceof MapValue map && !map.isWrapper())) {
+                Object wrapper = builder.createObject();
+                builder.addToArray(array, wrapper);
+                putValue(wrapper, "", element);
+            } else {
+                addValue(array, element);
+            }
+        }
+    }
+
+    /**
+     * Tag type of an encoded value, used to tell homogeneous lists from mixed ones
+     */
+    private static int typeOf(Object value) {
+        return switch (value) {
+            case Byte b -> 1;
+            case Short s -> 2;
+            case Integer i -> 3;
+            case Long l -> 4;
+            case Float f -> 5;
+            case Double d -> 6;
+            case byte[] ba -> 7;
+            case String s -> 8;
+            case ListValue list -> 9;
+            case MapValue map -> 10;
+            case int[] ia -> 11;
+            case long[] la -> 12;
+            default -> 0;
+        };
+    }
+
+    /**
+     * A map whose entries are written to a detached builder object as they are added
+     */
+    private static final class MapValue {
+
+        private final Object node;
+        private final Set<String> keys = new HashSet<>();
+        private boolean committed;
+
+        private MapValue(Object node) {
+            this.node = node;
+        }
+
+        private boolean isWrapper() {
+            return keys.size() == 1 && keys.contains("");
+        }
+
+        private Object commit() {
+            if (committed) {
+                throw new IllegalStateException("Encoded map is already part of another value");
+            }
+            committed = true;
+            return node;
+        }
+    }
+
+    /**
+     * A list, kept until its parent is known since its final form depends on the element types
+     */
+    private static final class ListValue {
+
+        private final List<Object> elements = new ArrayList<>();
+        private boolean committed;
+
+        private boolean isHomogeneous() {
+            for (int i = 1; i < elements.size(); i++) {
+                if (typeOf(elements.get(i)) != typeOf(elements.get(0))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the array this list becomes if it only holds bytes, ints or longs, or the list itself
+         */
+        private Object commit() {
+            if (committed) {
+                throw new IllegalStateException("Encoded list is already part of another value");
+            }
+            committed = true;
+
+            if (elements.isEmpty() || !isHomogeneous()) {
+                return this;
+            }
+            switch (typeOf(elements.get(0))) {
+                case 1 -> {
+                    byte[] array = new byte[elements.size()];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = (Byte) elements.get(i);
+                    }
+                    return array;
+                }
+                case 3 -> {
+                    return elements.stream().mapToInt(element -> (Integer) element).toArray();
+                }
+                case 4 -> {
+                    return elements.stream().mapToLong(element -> (Long) element).toArray();
+                }
+                default -> {
+                    return this;
+                }
+            }
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.tyzeron.datadump.builder;
 
+import com.tyzeron.datadump.util.NbtReader;
 
 /**
  * Abstract builder interface for creating hierarchical data structures.
@@ -132,4 +133,15 @@ public interface DataStructureBuilder {
      */
     void addLongArrayToArray(Object array, long[] value);
 
+    /**
+     * Adds a compound that is already encoded as binary NBT, its named entries followed by TAG_END as written
+     * by Minecraft's CompoundTag.write. By default the payload is replayed through the other methods,
+     * builders that can use the bytes as they are override this.
+     */
+    default void addCompoundPayload(Object parent, String key, byte[] payload) {
+        Object object = createObject();
+        addToObject(parent, key, object);
+        NbtReader.replayCompound(payload, this, object);
+    }
+
 }
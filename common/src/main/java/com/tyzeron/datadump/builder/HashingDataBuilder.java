@@ -0,0 +1,267 @@
+package com.tyzeron.datadump.builder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static com.tyzeron.datadump.builder.StreamingNbtDataBuilder.*;
+
+
+/**
+ * Builder that produces a content hash of everything added to it instead of a document.
+ * <p>
+ * Every call is fed to the digest in the order it is made, tagged with its NBT type and the id of the node
+ * it adds to, so the same data built the same way always gives the same hash. Nodes are numbered as they are
+ * created and adding a node hashes its id, which keeps the nesting in the hash even when nodes are filled
+ * before they are added. Encoded NBT payloads can be hashed as they are, without replaying them.
+ */
+public class HashingDataBuilder implements DataStructureBuilder {
+
+    private final MessageDigest digest;
+    private final DataOutputStream out;
+    private int nextNodeId = 0;
+
+    public HashingDataBuilder() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+    }
+
+    /**
+     * Returns the hash of everything added so far as a hex string and starts over
+     */
+    public String digest() {
+        nextNodeId = 0;
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hashes an encoded compound payload as it is, as written by {@link StreamingNbtDataBuilder#addCompoundPayload}
+     */
+    @Override
+    public void addCompoundPayload(Object parent, String key, byte[] payload) {
+        try {
+            writeTag(parent, TAG_COMPOUND, key);
+            out.writeInt(payload.length);
+            out.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Object createObject() {
+        return new Node(nextNodeId++, TAG_COMPOUND);
+    }
+
+    @Override
+    public Object createArray() {
+        return new Node(nextNodeId++, TAG_LIST);
+    }
+
+    @Override
+    public void addToObject(Object parent, String key, Object value) {
+        addNode(parent, key, (Node) value);
+    }
+
+    @Override
+    public void addToArray(Object array, Object value) {
+        addNode(array, null, (Node) value);
+    }
+
+    @Override
+    public void addByteProperty(Object parent, String key, byte value) {
+        try {
+            writeTag(parent, TAG_BYTE, key);
+            out.writeByte(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addShortProperty(Object parent, String key, short value) {
+        try {
+            writeTag(parent, TAG_SHORT, key);
+            out.writeShort(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addIntProperty(Object parent, String key, int value) {
+        try {
+            writeTag(parent, TAG_INT, key);
+            out.writeInt(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addLongProperty(Object parent, String key, long value) {
+        try {
+            writeTag(parent, TAG_LONG, key);
+            out.writeLong(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addFloatProperty(Object parent, String key, float value) {
+        try {
+            writeTag(parent, TAG_FLOAT, key);
+            out.writeFloat(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addDoubleProperty(Object parent, String key, double value) {
+        try {
+            writeTag(parent, TAG_DOUBLE, key);
+            out.writeDouble(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addStringProperty(Object parent, String key, String value) {
+        try {
+            writeTag(parent, TAG_STRING, key);
+            out.writeUTF(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addByteArrayProperty(Object parent, String key, byte[] value) {
+        try {
+            writeTag(parent, TAG_BYTE_ARRAY, key);
+            out.writeInt(value.length);
+            out.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addIntArrayProperty(Object parent, String key, int[] value) {
+        try {
+            writeTag(parent, TAG_INT_ARRAY, key);
+            out.writeInt(value.length);
+            for (int element : value) {
+                out.writeInt(element);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addLongArrayProperty(Object parent, String key, long[] value) {
+        try {
+            writeTag(parent, TAG_LONG_ARRAY, key);
+            out.writeInt(value.length);
+            for (long element : value) {
+                out.writeLong(element);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addBooleanProperty(Object parent, String key, boolean value) {
+        addByteProperty(parent, key, (byte) (value ? 1 : 0));
+    }
+
+    @Override
+    public void addByteToArray(Object array, byte value) {
+        addByteProperty(array, null, value);
+    }
+
+    @Override
+    public void addShortToArray(Object array, short value) {
+        addShortProperty(array, null, value);
+    }
+
+    @Override
+    public void addIntToArray(Object array, int value) {
+        addIntProperty(array, null, value);
+    }
+
+    @Override
+    public void addLongToArray(Object array, long value) {
+        addLongProperty(array, null, value);
+    }
+
+    @Override
+    public void addFloatToArray(Object array, float value) {
+        addFloatProperty(array, null, value);
+    }
+
+    @Override
+    public void addDoubleToArray(Object array, double value) {
+        addDoubleProperty(array, null, value);
+    }
+
+    @Override
+    public void addStringToArray(Object array, String value) {
+        addStringProperty(array, null, value);
+    }
+
+    @Override
+    public void addByteArrayToArray(Object array, byte[] value) {
+        addByteArrayProperty(array, null, value);
+    }
+
+    @Override
+    public void addIntArrayToArray(Object array, int[] value) {
+        addIntArrayProperty(array, null, value);
+    }
+
+    @Override
+    public void addLongArrayToArray(Object array, long[] value) {
+        addLongArrayProperty(array, null, value);
+    }
+
+    private void addNode(Object parent, String key, Node node) {
+        try {
+            writeTag(parent, node.type, key);
+            out.writeInt(node.id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the node a value is added to, the type of the value and its key, array elements are marked by an empty key
+     */
+    private void writeTag(Object parent, byte type, String key) {
+        try {
+            out.writeInt(((Node) parent).id);
+            out.writeByte(type);
+            out.writeUTF(key != null ? key : "");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Node(int id, byte type) {
+    }
+
+}
@@ -0,0 +1,351 @@
+package com.tyzeron.datadump.builder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+
+/**
+ * Base class for builders that write their output while the structure is being built,
+ * instead of keeping the whole document in memory.
+ * <p>
+ * The first object created is the document root and is written immediately. Objects and arrays
+ * created afterwards are buffered until they are attached to a parent that has already been written;
+ * from then on, values added to them go straight to the output. Adding a value to a node closes every
+ * node that was opened after it, so containers should be attached to their parent before being filled.
+ * <p>
+ * Write failures are reported as {@link UncheckedIOException}, since the builder interface does not
+ * declare checked exceptions.
+ */
+public abstract class StreamingDataBuilder implements DataStructureBuilder, Closeable {
+
+    private final Deque<Node> openNodes = new ArrayDeque<>();
+    private boolean rootCreated = false;
+    private boolean closed = false;
+
+    @Override
+    public Object createObject() {
+        return createNode(false);
+    }
+
+    @Override
+    public Object createArray() {
+        return createNode(true);
+    }
+
+    @Override
+    public void addToObject(Object parent, String key, Object value) {
+        attach((Node) parent, key, value);
+    }
+
+    @Override
+    public void addToArray(Object array, Object value) {
+        attach((Node) array, null, value);
+    }
+
+    @Override
+    public void addByteProperty(Object parent, String key, byte value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addShortProperty(Object parent, String key, short value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addIntProperty(Object parent, String key, int value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addLongProperty(Object parent, String key, long value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addFloatProperty(Object parent, String key, float value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addDoubleProperty(Object parent, String key, double value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addStringProperty(Object parent, String key, String value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addByteArrayProperty(Object parent, String key, byte[] value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addIntArrayProperty(Object parent, String key, int[] value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addLongArrayProperty(Object parent, String key, long[] value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addBooleanProperty(Object parent, String key, boolean value) {
+        add((Node) parent, key, value);
+    }
+
+    @Override
+    public void addByteToArray(Object array, byte value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addShortToArray(Object array, short value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addIntToArray(Object array, int value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addLongToArray(Object array, long value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addFloatToArray(Object array, float value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addDoubleToArray(Object array, double value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addStringToArray(Object array, String value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addByteArrayToArray(Object array, byte[] value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addIntArrayToArray(Object array, int[] value) {
+        add((Node) array, null, value);
+    }
+
+    @Override
+    public void addLongArrayToArray(Object array, long[] value) {
+        add((Node) array, null, value);
+    }
+
+    /**
+     * Adds a format-specific value to an object or array, it is written out through {@link #writeRaw}
+     */
+    protected void addRaw(Object parent, String key, Object value) {
+        add((Node) parent, key, value);
+    }
+
+    /**
+     * Closes every node that is still open and releases the underlying output
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            while (!openNodes.isEmpty()) {
+                closeTop();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            closeOutput();
+        }
+    }
+
+    private Node createNode(boolean array) {
+        Node node = new Node(array);
+        if (!rootCreated) {
+            rootCreated = true;
+            node.attached = true;
+            open(node, null);
+        }
+        return node;
+    }
+
+    private void attach(Node parent, String key, Object value) {
+        if (!(value instanceof Node child)) {
+            return;
+        }
+        if (child.attached) {
+            throw new IllegalStateException("Node is already attached to a parent");
+        }
+        child.attached = true;
+        if (makeCurrent(parent)) {
+            open(child, key);
+            replay(child);
+        } else {
+            parent.buffer(key, child);
+        }
+    }
+
+    private void add(Node parent, String key, Object value) {
+        if (makeCurrent(parent)) {
+            emit(key, value);
+        } else {
+            parent.buffer(key, value);
+        }
+    }
+
+    /**
+     * Makes the given node the innermost open node, closing any nodes opened after it.
+     * Returns false if the node has not been written yet and its content must be buffered instead.
+     */
+    private boolean makeCurrent(Node node) {
+        if (!node.written) {
+            return false;
+        }
+        if (node.finished) {
+            throw new IllegalStateException("Cannot add to a node that has already been written out");
+        }
+        while (openNodes.peek() != node) {
+            closeTop();
+        }
+        return true;
+    }
+
+    private void open(Node node, String key) {
+        if (closed) {
+            throw new IllegalStateException("Builder is already closed");
+        }
+        try {
+            if (node.array) {
+                writeStartArray(key);
+            } else {
+                writeStartObject(key);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        node.written = true;
+        openNodes.push(node);
+    }
+
+    private void closeTop() {
+        Node node = openNodes.pop();
+        node.finished = true;
+        try {
+            writeEnd(node.array);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes out everything that was buffered for a node before it was attached
+     */
+    private void replay(Node node) {
+        List<Object> pending = node.pending;
+        node.pending = null;
+        if (pending == null) {
+            return;
+        }
+        for (int i = 0; i < pending.size(); i += 2) {
+            String key = (String) pending.get(i);
+            Object value = pending.get(i + 1);
+            makeCurrent(node);
+            if (value instanceof Node child) {
+                open(child, key);
+                replay(child);
+            } else {
+                emit(key, value);
+            }
+        }
+    }
+
+    private void emit(String key, Object value) {
+        try {
+            switch (value) {
+                case String s -> writeString(key, s);
+                case Boolean b -> writeBoolean(key, b);
+                case Byte b -> writeByte(key, b);
+                case Short s -> writeShort(key, s);
+                case Integer i -> writeInt(key, i);
+                case Long l -> writeLong(key, l);
+                case Float f -> writeFloat(key, f);
+                case Double d -> writeDouble(key, d);
+                case byte[] ba -> writeByteArray(key, ba);
+                case int[] ia -> writeIntArray(key, ia);
+                case long[] la -> writeLongArray(key, la);
+                default -> writeRaw(key, value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Format-specific output, the key is null for array elements and for the root
+    protected abstract void writeStartObject(String key) throws IOException;
+    protected abstract void writeStartArray(String key) throws IOException;
+    protected abstract void writeEnd(boolean array) throws IOException;
+
+    protected abstract void writeByte(String key, byte value) throws IOException;
+    protected abstract void writeShort(String key, short value) throws IOException;
+    protected abstract void writeInt(String key, int value) throws IOException;
+    protected abstract void writeLong(String key, long value) throws IOException;
+    protected abstract void writeFloat(String key, float value) throws IOException;
+    protected abstract void writeDouble(String key, double value) throws IOException;
+    protected abstract void writeString(String key, String value) throws IOException;
+    protected abstract void writeBoolean(String key, boolean value) throws IOException;
+    protected abstract void writeByteArray(String key, byte[] value) throws IOException;
+    protected abstract void writeIntArray(String key, int[] value) throws IOException;
+    protected abstract void writeLongArray(String key, long[] value) throws IOException;
+
+    protected void writeRaw(String key, Object value) throws IOException {
+        throw new IllegalArgumentException("Unsupported value type: " + value.getClass());
+    }
+
+    protected abstract void closeOutput() throws IOException;
+
+    /**
+     * Handle for an object or array created by this builder
+     */
+    private static final class Node {
+
+        private final boolean array;
+        private boolean attached = false;
+        private boolean written = false;
+        private boolean finished = false;
+        // Alternating key/value pairs added while the node was not yet written
+        private List<Object> pending;
+
+        private Node(boolean array) {
+            this.array = array;
+        }
+
+        private void buffer(String key, Object value) {
+            if (pending == null) {
+                pending = new ArrayList<>();
+            }
+            pending.add(key);
+            pending.add(value);
+        }
+    }
+
+}
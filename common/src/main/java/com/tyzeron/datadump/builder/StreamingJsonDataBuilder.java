@@ -0,0 +1,145 @@
+package com.tyzeron.datadump.builder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * JSON implementation of DataStructureBuilder that writes tokens directly to a Writer
+ * using Gson's JsonWriter. Produces the same output as serializing a JsonDataBuilder tree.
+ */
+public class StreamingJsonDataBuilder extends StreamingDataBuilder {
+
+    private static final Gson GSON_PRETTY = new GsonBuilder().setPrettyPrinting().create();
+    private static final Gson GSON_MINIFIED = new Gson();
+
+    private final JsonWriter writer;
+
+    public StreamingJsonDataBuilder(Writer out, boolean pretty) throws IOException {
+        Gson gson = pretty ? GSON_PRETTY : GSON_MINIFIED;
+        this.writer = gson.newJsonWriter(out);
+        // Gson.toJson(JsonElement) writes leniently, so do the same to keep NaN/Infinity output identical
+        this.writer.setLenient(true);
+    }
+
+    @Override
+    protected void writeStartObject(String key) throws IOException {
+        name(key).beginObject();
+    }
+
+    @Override
+    protected void writeStartArray(String key) throws IOException {
+        name(key).beginArray();
+    }
+
+    @Override
+    protected void writeEnd(boolean array) throws IOException {
+        if (array) {
+            writer.endArray();
+        } else {
+            writer.endObject();
+        }
+    }
+
+    @Override
+    protected void writeByte(String key, byte value) throws IOException {
+        name(key).value(Byte.valueOf(value));
+    }
+
+    @Override
+    protected void writeShort(String key, short value) throws IOException {
+        name(key).value(Short.valueOf(value));
+    }
+
+    @Override
+    protected void writeInt(String key, int value) throws IOException {
+        name(key).value(Integer.valueOf(value));
+    }
+
+    @Override
+    protected void writeLong(String key, long value) throws IOException {
+        name(key).value(Long.valueOf(value));
+    }
+
+    @Override
+    protected void writeFloat(String key, float value) throws IOException {
+        name(key).value(Float.valueOf(value));
+    }
+
+    @Override
+    protected void writeDouble(String key, double value) throws IOException {
+        name(key).value(Double.valueOf(value));
+    }
+
+    @Override
+    protected void writeString(String key, String value) throws IOException {
+        name(key).value(value);
+    }
+
+    @Override
+    protected void writeBoolean(String key, boolean value) throws IOException {
+        name(key).value(value);
+    }
+
+    @Override
+    protected void writeByteArray(String key, byte[] value) throws IOException {
+        name(key).beginArray();
+        for (byte b : value) {
+            writer.value(Byte.valueOf(b));
+        }
+        writer.endArray();
+    }
+
+    @Override
+    protected void writeIntArray(String key, int[] value) throws IOException {
+        name(key).beginArray();
+        for (int i : value) {
+            writer.value(Integer.valueOf(i));
+        }
+        writer.endArray();
+    }
+
+    @Override
+    protected void writeLongArray(String key, long[] value) throws IOException {
+        name(key).beginArray();
+        for (long l : value) {
+            writer.value(Long.valueOf(l));
+        }
+        writer.endArray();
+    }
+
+    @Override
+    protected void closeOutput() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Creates a builder writing UTF-8 JSON to the given file
+     */
+    public static StreamingJsonDataBuilder forFile(File file, boolean pretty) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+        try {
+            return new StreamingJsonDataBuilder(writer, pretty);
+        } catch (IOException | RuntimeException e) {
+            writer.close();
+            throw e;
+        }
+    }
+
+    private JsonWriter name(String key) throws IOException {
+        if (key != null) {
+            writer.name(key);
+        }
+        return writer;
+    }
+
+}
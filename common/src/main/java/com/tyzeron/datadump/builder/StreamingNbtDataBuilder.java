@@ -0,0 +1,270 @@
+package com.tyzeron.datadump.builder;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * NBT implementation of DataStructureBuilder that encodes tags directly in the binary NBT format,
+ * without depending on Minecraft's tag classes. The output is what NbtIo.write (or NbtIo.writeCompressed
+ * when compressed) produces for the equivalent CompoundTag, except that compound entries keep the order
+ * in which they were added.
+ * <p>
+ * Encoded bytes are staged in a small buffer so list headers can be back-patched with their element
+ * type and length once the list is closed; the buffer is flushed whenever no list is open.
+ */
+public class StreamingNbtDataBuilder extends StreamingDataBuilder {
+
+    public static final byte TAG_END = 0;
+    public static final byte TAG_BYTE = 1;
+    public static final byte TAG_SHORT = 2;
+    public static final byte TAG_INT = 3;
+    public static final byte TAG_LONG = 4;
+    public static final byte TAG_FLOAT = 5;
+    public static final byte TAG_DOUBLE = 6;
+    public static final byte TAG_BYTE_ARRAY = 7;
+    public static final byte TAG_STRING = 8;
+    public static final byte TAG_LIST = 9;
+    public static final byte TAG_COMPOUND = 10;
+    public static final byte TAG_INT_ARRAY = 11;
+    public static final byte TAG_LONG_ARRAY = 12;
+
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final OutputStream out;
+    private final PatchableBuffer buffer = new PatchableBuffer();
+    private final DataOutputStream data = new DataOutputStream(buffer);
+    private final Deque<Container> containers = new ArrayDeque<>();
+    private int openLists = 0;
+
+    public StreamingNbtDataBuilder(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Creates a builder writing NBT to the given file, optionally GZIP-compressed
+     */
+    public static StreamingNbtDataBuilder forFile(File file, boolean compressed) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            if (compressed) {
+                out = new GZIPOutputStream(out);
+            }
+            return new StreamingNbtDataBuilder(new BufferedOutputStream(out));
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a compound that is already encoded. The payload is its named entries followed by TAG_END,
+     * as written by Minecraft's CompoundTag.write, and is copied to the output unchanged.
+     */
+    @Override
+    public void addCompoundPayload(Object parent, String key, byte[] payload) {
+        addRaw(parent, key, new CompoundPayload(payload));
+    }
+
+    @Override
+    protected void writeStartObject(String key) throws IOException {
+        writeHeader(key, TAG_COMPOUND);
+        containers.push(new Container(false));
+    }
+
+    @Override
+    protected void writeStartArray(String key) throws IOException {
+        writeHeader(key, TAG_LIST);
+        Container list = new Container(true);
+        list.typePosition = buffer.size();
+        data.writeByte(TAG_END);
+        list.lengthPosition = buffer.size();
+        data.writeInt(0);
+        containers.push(list);
+        openLists++;
+    }
+
+    @Override
+    protected void writeEnd(boolean array) throws IOException {
+        Container container = containers.pop();
+        if (container.list) {
+            buffer.patchInt(container.lengthPosition, container.length);
+            openLists--;
+        } else {
+            data.writeByte(TAG_END);
+        }
+        if (openLists == 0 && buffer.size() >= FLUSH_THRESHOLD) {
+            flushBuffer();
+        }
+    }
+
+    @Override
+    protected void writeByte(String key, byte value) throws IOException {
+        writeHeader(key, TAG_BYTE);
+        data.writeByte(value);
+    }
+
+    @Override
+    protected void writeShort(String key, short value) throws IOException {
+        writeHeader(key, TAG_SHORT);
+        data.writeShort(value);
+    }
+
+    @Override
+    protected void writeInt(String key, int value) throws IOException {
+        writeHeader(key, TAG_INT);
+        data.writeInt(value);
+    }
+
+    @Override
+    protected void writeLong(String key, long value) throws IOException {
+        writeHeader(key, TAG_LONG);
+        data.writeLong(value);
+    }
+
+    @Override
+    protected void writeFloat(String key, float value) throws IOException {
+        writeHeader(key, TAG_FLOAT);
+        data.writeFloat(value);
+    }
+
+    @Override
+    protected void writeDouble(String key, double value) throws IOException {
+        writeHeader(key, TAG_DOUBLE);
+        data.writeDouble(value);
+    }
+
+    @Override
+    protected void writeString(String key, String value) throws IOException {
+        writeHeader(key, TAG_STRING);
+        data.writeUTF(value);
+    }
+
+    @Override
+    protected void writeBoolean(String key, boolean value) throws IOException {
+        // NBT has no boolean type, Minecraft stores them as bytes
+        writeByte(key, value ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    protected void writeByteArray(String key, byte[] value) throws IOException {
+        writeHeader(key, TAG_BYTE_ARRAY);
+        data.writeInt(value.length);
+        data.write(value);
+    }
+
+    @Override
+    protected void writeIntArray(String key, int[] value) throws IOException {
+        writeHeader(key, TAG_INT_ARRAY);
+        data.writeInt(value.length);
+        for (int i : value) {
+            data.writeInt(i);
+        }
+    }
+
+    @Override
+    protected void writeLongArray(String key, long[] value) throws IOException {
+        writeHeader(key, TAG_LONG_ARRAY);
+        data.writeInt(value.length);
+        for (long l : value) {
+            data.writeLong(l);
+        }
+    }
+
+    @Override
+    protected void writeRaw(String key, Object value) throws IOException {
+        if (value instanceof CompoundPayload compound) {
+            writeHeader(key, TAG_COMPOUND);
+            data.write(compound.bytes);
+        } else {
+            super.writeRaw(key, value);
+        }
+    }
+
+    @Override
+    protected void closeOutput() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the tag type and name for a compound entry or the root tag,
+     * or checks the element type for a list entry
+     */
+    private void writeHeader(String key, byte type) throws IOException {
+        Container parent = containers.peek();
+        if (parent == null || !parent.list) {
+            data.writeByte(type);
+            data.writeUTF(key == null ? "" : key);
+            return;
+        }
+
+        if (parent.length == 0) {
+            parent.elementType = type;
+            buffer.patchByte(parent.typePosition, type);
+        } else if (parent.elementType != type) {
+            throw new IllegalStateException("Cannot add tag of type " + type + " to a list of type " + parent.elementType);
+        }
+        parent.length++;
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.writeTo(out);
+        buffer.reset();
+    }
+
+    /**
+     * A compound payload encoded elsewhere
+     */
+    private record CompoundPayload(byte[] bytes) {
+    }
+
+    /**
+     * An open compound or list
+     */
+    private static final class Container {
+
+        private final boolean list;
+        private int typePosition;
+        private int lengthPosition;
+        private byte elementType = TAG_END;
+        private int length = 0;
+
+        private Container(boolean list) {
+            this.list = list;
+        }
+    }
+
+    /**
+     * Byte buffer that allows already written bytes to be overwritten
+     */
+    private static final class PatchableBuffer extends ByteArrayOutputStream {
+
+        private PatchableBuffer() {
+            super(8192);
+        }
+
+        private void patchByte(int position, byte value) {
+            buf[position] = value;
+        }
+
+        private void patchInt(int position, int value) {
+            buf[position] = (byte) (value >>> 24);
+            buf[position + 1] = (byte) (value >>> 16);
+            buf[position + 2] = (byte) (value >>> 8);
+            buf[position + 3] = (byte) value;
+        }
+    }
+
+}
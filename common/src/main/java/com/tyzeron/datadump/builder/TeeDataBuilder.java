@@ -0,0 +1,276 @@
+package com.tyzeron.datadump.builder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Builder that passes every call on to several sink builders, so one pass over the data produces
+ * all of their outputs at once. With streaming sinks, each output is written as the pass goes.
+ * <p>
+ * Nodes of this builder hold the matching node of every sink. Sinks can only be added before
+ * the first node is created. Closing the tee closes every sink that is closeable.
+ */
+public class TeeDataBuilder implements DataStructureBuilder, Closeable {
+
+    private final List<DataStructureBuilder> sinks = new ArrayList<>();
+    private boolean started = false;
+
+    /**
+     * Adds a sink, which is closed with this builder from now on
+     */
+    public void addSink(DataStructureBuilder sink) {
+        if (started) {
+            throw new IllegalStateException("Sinks can not be added once nodes have been created");
+        }
+        sinks.add(sink);
+    }
+
+    public List<DataStructureBuilder> getSinks() {
+        return List.copyOf(sinks);
+    }
+
+    @Override
+    public Object createObject() {
+        started = true;
+        Object[] handles = new Object[sinks.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = sinks.get(i).createObject();
+        }
+        return handles;
+    }
+
+    @Override
+    public Object createArray() {
+        started = true;
+        Object[] handles = new Object[sinks.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = sinks.get(i).createArray();
+        }
+        return handles;
+    }
+
+    @Override
+    public void addToObject(Object parent, String key, Object value) {
+        Object[] parents = (Object[]) parent;
+        Object[] values = (Object[]) value;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addToObject(parents[i], key, values[i]);
+        }
+    }
+
+    @Override
+    public void addToArray(Object array, Object value) {
+        Object[] arrays = (Object[]) array;
+        Object[] values = (Object[]) value;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addToArray(arrays[i], values[i]);
+        }
+    }
+
+    /**
+     * Passes the payload to every sink as it is, so NBT sinks still get the bytes spliced in
+     */
+    @Override
+    public void addCompoundPayload(Object parent, String key, byte[] payload) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addCompoundPayload(parents[i], key, payload);
+        }
+    }
+
+    @Override
+    public void addByteProperty(Object parent, String key, byte value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addByteProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addShortProperty(Object parent, String key, short value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addShortProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addIntProperty(Object parent, String key, int value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addIntProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addLongProperty(Object parent, String key, long value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addLongProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addFloatProperty(Object parent, String key, float value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addFloatProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addDoubleProperty(Object parent, String key, double value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addDoubleProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addStringProperty(Object parent, String key, String value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addStringProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addByteArrayProperty(Object parent, String key, byte[] value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addByteArrayProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addIntArrayProperty(Object parent, String key, int[] value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addIntArrayProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addLongArrayProperty(Object parent, String key, long[] value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addLongArrayProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addBooleanProperty(Object parent, String key, boolean value) {
+        Object[] parents = (Object[]) parent;
+        for (int i = 0; i < parents.length; i++) {
+            sinks.get(i).addBooleanProperty(parents[i], key, value);
+        }
+    }
+
+    @Override
+    public void addByteToArray(Object array, byte value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addByteToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addShortToArray(Object array, short value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addShortToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addIntToArray(Object array, int value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addIntToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addLongToArray(Object array, long value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addLongToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addFloatToArray(Object array, float value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addFloatToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addDoubleToArray(Object array, double value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addDoubleToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addStringToArray(Object array, String value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addStringToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addByteArrayToArray(Object array, byte[] value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addByteArrayToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addIntArrayToArray(Object array, int[] value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addIntArrayToArray(arrays[i], value);
+        }
+    }
+
+    @Override
+    public void addLongArrayToArray(Object array, long[] value) {
+        Object[] arrays = (Object[]) array;
+        for (int i = 0; i < arrays.length; i++) {
+            sinks.get(i).addLongArrayToArray(arrays[i], value);
+        }
+    }
+
+    /**
+     * Closes every closeable sink, even if closing one of them fails
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (DataStructureBuilder sink : sinks) {
+            if (sink instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
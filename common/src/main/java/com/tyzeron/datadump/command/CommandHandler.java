@@ -1,31 +1,52 @@
 package com.tyzeron.datadump.command;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-
 import com.tyzeron.datadump.BlockDataDump;
 import com.tyzeron.datadump.DataDump;
 import com.tyzeron.datadump.PlatformHelper;
 import com.tyzeron.datadump.RegistryDataDump;
-import com.tyzeron.datadump.abstraction.block.BlockDataProvider;
 import com.tyzeron.datadump.abstraction.block.BlockInfo;
-import com.tyzeron.datadump.abstraction.nbt.NbtCompound;
-import com.tyzeron.datadump.abstraction.nbt.NbtWriter;
-import com.tyzeron.datadump.abstraction.registry.RegistryDataProvider;
 import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.binary.BinaryDumpWriter;
 import com.tyzeron.datadump.builder.DataStructureBuilder;
-import com.tyzeron.datadump.builder.JsonDataBuilder;
-import com.tyzeron.datadump.builder.NbtDataBuilder;
+import com.tyzeron.datadump.builder.StreamingDataBuilder;
+import com.tyzeron.datadump.builder.StreamingJsonDataBuilder;
+import com.tyzeron.datadump.builder.StreamingNbtDataBuilder;
+import com.tyzeron.datadump.builder.TeeDataBuilder;
 import com.tyzeron.datadump.config.ConfigManager;
 import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.job.DumpJobManager;
+import com.tyzeron.datadump.job.DumpMetrics;
+import com.tyzeron.datadump.job.DumpProgress;
+import com.tyzeron.datadump.job.DumpScheduler;
+import com.tyzeron.datadump.job.DumpSnapshot;
+import com.tyzeron.datadump.job.RegistryManifest;
+import com.tyzeron.datadump.job.SnapshotCache;
+import com.tyzeron.datadump.job.TickWorkExecutor;
+import com.tyzeron.datadump.util.OutputFiles;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 
 /**
@@ -34,6 +55,14 @@ import java.util.List;
 public class CommandHandler {
 
     private static ConfigManager configManager;
+    // Dumps still run one at a time, the second slot lets cache warm-ups run next to them
+    private static final int MAX_CONCURRENT_JOBS = 2;
+
+    private static final DumpJobManager jobManager = new DumpJobManager(MAX_CONCURRENT_JOBS);
+    private static final SnapshotCache snapshotCache = new SnapshotCache();
+    private static final DumpScheduler scheduler = new DumpScheduler();
+    // Fingerprint of the data of each profile's last scheduled run, to skip runs while nothing changed
+    private static final Map<String, String> scheduledFingerprints = new ConcurrentHashMap<>();
 
     /**
      * Initializes the command handler with the config directory
@@ -45,45 +74,176 @@ public class CommandHandler {
     }
 
     /**
-     * Handles the /datadump run <profile> command
+     * Handles the /datadump run <profile> [profile...] command without blocking the caller.
+     * The profiles are loaded on the calling thread, everything else runs as a background job
+     * whose result is passed to the callback from the job thread.
      */
-    public static CommandResult handleRun(String profileName) {
+    public static CommandResult handleRunAsync(String profileNames, Consumer<CommandResult> callback) {
         if (configManager == null) {
             return CommandResult.error("Command handler not initialized!");
         }
         try {
-            // Load the specified profile
-            ProfileConfig profile = configManager.loadProfile(profileName);
-            
-            // Check if single file or multi-file mode
-            if (profile.getExport().isSingleFile()) {
-                return runSingleFileDump(profile);
-            } else {
-                return runMultiFileDump(profile);
+            // Load the specified profiles now, so mistakes are reported right away
+            Map<String, ProfileConfig> profiles = loadProfiles(profileNames);
+            String names = String.join("', '", profiles.keySet());
+            String kind = profiles.size() == 1 ? "profile" : "profiles";
+
+            // Identical requests share one job, so nobody runs the same dump twice at once
+            DumpJobManager.Submission submission = jobManager.submit("run " + String.join(" ", profiles.keySet()),
+                kind + " " + String.join(", ", profiles.keySet()), true, () -> runProfiles(profiles), callback);
+
+            if (submission.joined()) {
+                return CommandResult.info(String.format(
+                    "Data dump job #%d for %s '%s' is already queued or running, you will be notified when it finishes",
+                    submission.jobId(), kind, names
+                ));
             }
+            return CommandResult.info(String.format(
+                "Started data dump job #%d for %s '%s', you will be notified when it finishes",
+                submission.jobId(), kind, names
+            ));
         } catch (Exception e) {
-            DataDump.LOGGER.error("Failed to run data dump for profile: {}", profileName, e);
-            return CommandResult.error("Failed to run data dump: " + e.getMessage());
+            DataDump.LOGGER.error("Failed to start data dump for profile: {}", profileNames, e);
+            return CommandResult.error("Failed to start data dump: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the profiles named in a space separated list, in order. A profile with a [batch] section is
+     * replaced by the profiles it lists, followed by itself if it has an export section. Each profile is
+     * loaded once, however often it is named.
+     */
+    private static Map<String, ProfileConfig> loadProfiles(String profileNames) throws IOException {
+        Map<String, ProfileConfig> profiles = new LinkedHashMap<>();
+        for (String profileName : profileNames.trim().split("\\s+")) {
+            addProfile(profileName, profiles, new HashSet<>());
+        }
+        if (profiles.isEmpty()) {
+            throw new IOException("No profile with an export section in: " + profileNames);
+        }
+        return profiles;
+    }
+
+    private static void addProfile(String profileName, Map<String, ProfileConfig> profiles, Set<String> expanding) throws IOException {
+        String name = profileName.endsWith(".toml") ? profileName.substring(0, profileName.length() - 5) : profileName;
+        // Skip profiles that are already loaded, and batches that end up listing themselves
+        if (profiles.containsKey(name) || !expanding.add(name)) {
+            return;
+        }
+
+        ProfileConfig profile = configManager.loadProfile(name);
+        if (profile.getBatch() != null && profile.getBatch().getProfiles() != null) {
+            for (String member : profile.getBatch().getProfiles()) {
+                addProfile(member, profiles, expanding);
+            }
+        }
+        if (profile.getExport() != null) {
+            profiles.put(name, profile);
+        }
+    }
+
+    /**
+     * Runs already loaded profiles, several profiles run as a batch
+     */
+    private static CommandResult runProfiles(Map<String, ProfileConfig> profiles) {
+        if (profiles.size() > 1) {
+            return runBatch(profiles);
+        }
+        var entry = profiles.entrySet().iterator().next();
+        return runDump(entry.getKey(), entry.getValue(), snapshotsFor(entry.getValue()));
+    }
+
+    /**
+     * Runs several profiles from one shared extraction. The data all profiles need is extracted and encoded
+     * once, then every profile writes its own outputs and metrics from its part of it.
+     */
+    private static CommandResult runBatch(Map<String, ProfileConfig> profiles) {
+        DumpMetrics sharedMetrics = new DumpMetrics();
+        ProfileConfig union = DumpSnapshot.unionOf(new ArrayList<>(profiles.values()));
+        // The shared extraction is only cached when every profile of the batch allows it
+        DumpSnapshot shared;
+        if (profiles.values().stream().allMatch(CommandHandler::isCached)) {
+            prepareForCache(union);
+            shared = snapshotCache.snapshot(union, sharedMetrics);
+        } else {
+            shared = new DumpSnapshot(union, sharedMetrics);
+        }
+
+        StringBuilder message = new StringBuilder();
+        int failCount = 0;
+        for (var entry : profiles.entrySet()) {
+            ProfileConfig profile = entry.getValue();
+            CommandResult result = runDump(entry.getKey(), profile, metrics -> shared.narrowTo(profile, metrics));
+            if (!result.isSuccess()) {
+                failCount++;
+            }
+            message.append(String.format("\nProfile '%s': %s", entry.getKey(), result.getMessage()));
+        }
+        DataDump.LOGGER.info("Batch of {} profiles finished, shared extraction: {}", profiles.size(), sharedMetrics.summary());
+
+        if (failCount == profiles.size()) {
+            return CommandResult.error("Batch data dump failed." + message);
+        } else if (failCount > 0) {
+            return CommandResult.success(String.format(
+                "Batch data dump completed with errors. Success: %d, Failed: %d.%s",
+                profiles.size() - failCount, failCount, message
+            ));
+        }
+        return CommandResult.success(String.format(
+            "Batch data dump of %d profiles completed successfully from one extraction!%s", profiles.size(), message
+        ));
+    }
+
+    /**
+     * Creates the snapshots of runs of a profile, taking their data from the cache when the profile allows it
+     */
+    private static Function<DumpMetrics, DumpSnapshot> snapshotsFor(ProfileConfig profile) {
+        if (!isCached(profile)) {
+            return metrics -> new DumpSnapshot(profile, metrics);
+        }
+        prepareForCache(profile);
+        return metrics -> snapshotCache.snapshot(profile, metrics);
+    }
+
+    private static boolean isCached(ProfileConfig profile) {
+        return profile.getExecution() != null && profile.getExecution().isCache();
+    }
+
+    /**
+     * Turns off direct encoding for a cached profile. Cached elements are encoded once up front,
+     * directly encoded ones would be encoded again by every run.
+     */
+    private static void prepareForCache(ProfileConfig profile) {
+        if (profile.getRegistries() != null && profile.getRegistries().isDirectEncode()) {
+            DataDump.LOGGER.info("Direct encoding is turned off for a cached profile, set cache = false to use it");
+            profile.getRegistries().setDirectEncode(false);
+        }
+    }
+
+    /**
+     * Runs a dump for an already loaded profile, taking its data from the snapshot created for the run's metrics
+     */
+    private static CommandResult runDump(
+            String profileName, ProfileConfig profile, Function<DumpMetrics, DumpSnapshot> snapshots
+    ) {
+        // Check if single file or multi-file mode
+        if (profile.getExport().isSingleFile()) {
+            return runSingleFileDump(profile, snapshots);
+        } else {
+            return runMultiFileDump(profileName, profile, snapshots);
         }
     }
 
     /**
      * Runs a single-file dump
      */
-    private static CommandResult runSingleFileDump(ProfileConfig profile) {
+    private static CommandResult runSingleFileDump(ProfileConfig profile, Function<DumpMetrics, DumpSnapshot> snapshots) {
         try {
             Path outputDir = PlatformHelper.getGameDirectory().resolve("datadump");
             String format = profile.getExport().getFormat();
-            String filename = profile.getExport().getFilename();
 
             // Add appropriate extension if not present
-            if (!filename.contains(".")) {
-                if ("json".equalsIgnoreCase(format)) {
-                    filename += ".json";
-                } else if ("nbt".equalsIgnoreCase(format)) {
-                    filename += ".nbt";
-                }
-            }
+            String filename = withExtension(profile.getExport().getFilename(), format);
             File outputFile = new File(outputDir.toFile(), filename);
 
             // Create parent directory if needed
@@ -95,12 +255,18 @@ public class CommandHandler {
             DataDump.LOGGER.info("Running combined data dump -> {}", outputFile.getAbsolutePath());
 
             // Generate combined dump with all enabled data sources
-            generateCombinedDump(outputFile, profile);
+            DumpMetrics metrics = new DumpMetrics();
+            DumpSnapshot snapshot = snapshots.apply(metrics);
+            OutputFiles.write(outputFile, file -> generateCombinedDump(file, profile, snapshot, metrics));
+            writeMetrics(metrics, new File(outputFile.getPath() + ".metrics.json"));
 
             return CommandResult.success(String.format(
-                "Data dump completed successfully! File saved to: %s",
-                outputFile.getAbsolutePath()
+                "Data dump completed successfully! File saved to: %s\n%s",
+                outputFile.getAbsolutePath(), metrics.summary()
             ));
+        } catch (CancellationException e) {
+            // Reported by the job manager, the output was left as it was
+            throw e;
         } catch (Exception e) {
             DataDump.LOGGER.error("Failed to run single-file dump", e);
             return CommandResult.error("Failed to run dump: " + e.getMessage());
@@ -110,57 +276,42 @@ public class CommandHandler {
     /**
      * Runs a multi-file dump
      */
-    private static CommandResult runMultiFileDump(ProfileConfig profile) {
+    private static CommandResult runMultiFileDump(
+            String profileName, ProfileConfig profile, Function<DumpMetrics, DumpSnapshot> snapshots
+    ) {
         try {
             Path outputDir = PlatformHelper.getGameDirectory().resolve("datadump");
             int successCount = 0;
             int failCount = 0;
+            DumpMetrics metrics = new DumpMetrics();
+
+            // Every output builds from the same snapshot, so each category is extracted once
+            DumpSnapshot snapshot = snapshots.apply(metrics);
 
-            // Process each multi-output configuration
+            // Group the multi-output configurations by category
+            Map<String, List<MultiOutput>> outputsByCategory = new LinkedHashMap<>();
             if (profile.getMultiOutput() != null) {
+                disableRepeatedDirectEncode(profile);
+
                 for (var entry : profile.getMultiOutput().entrySet()) {
-                    String category = entry.getKey();
                     ProfileConfig.MultiOutputConfig outputConfig = entry.getValue();
+                    String category = categoryOf(entry.getKey(), outputConfig);
 
+                    if (!"blocks".equals(category) && !"registries".equals(category)) {
+                        DataDump.LOGGER.warn("Unknown category '{}', skipping", category);
+                        continue;
+                    }
                     try {
-                        String format = outputConfig.getFormat();
-                        String filename = outputConfig.getFile();
-                        if (!filename.contains(".")) {
-                            if ("json".equalsIgnoreCase(format)) {
-                                filename += ".json";
-                            } else if ("nbt".equalsIgnoreCase(format)) {
-                                filename += ".nbt";
-                            }
-                        }
-                        File outputFile = new File(outputDir.toFile(), filename);
-
-                        // Create a temporary profile config with the specific format
-                        ProfileConfig tempProfile = new ProfileConfig();
-                        ProfileConfig.ExportConfig exportConfig = new ProfileConfig.ExportConfig();
-                        exportConfig.setFormat(format);
-                        exportConfig.setSingleFile(true);
-                        exportConfig.setFilename(filename);
-
-                        // Copy JSON/NBT settings from original profile
-                        exportConfig.setJson(profile.getExport().getJson());
-                        exportConfig.setNbt(profile.getExport().getNbt());
-
-                        tempProfile.setExport(exportConfig);
-
-                        DataDump.LOGGER.info("Running {} dump -> {}", category, outputFile.getAbsolutePath());
-
-                        // Route to the appropriate dump handler based on category
-                        if ("blocks".equals(category)) {
-                            tempProfile.setBlocks(profile.getBlocks());
-                            BlockDataDump.generateDump(outputFile, tempProfile);
-                            successCount++;
-                        } else if ("registries".equals(category)) {
-                            tempProfile.setRegistries(profile.getRegistries());
-                            RegistryDataDump.generateDump(outputFile, tempProfile);
-                            successCount++;
-                        } else {
-                            DataDump.LOGGER.warn("Unknown category '{}', skipping", category);
+                        boolean split = outputConfig.isSplit() && "registries".equals(category);
+                        if (outputConfig.isSplit() && !split) {
+                            DataDump.LOGGER.warn("Only registries can be split into a file each, writing '{}' as one file", entry.getKey());
                         }
+                        // Split outputs write into a directory named after the file
+                        String filename = split
+                            ? withoutExtension(outputConfig.getFile())
+                            : withExtension(outputConfig.getFile(), outputConfig.getFormat());
+                        outputsByCategory.computeIfAbsent(category, key -> new ArrayList<>())
+                            .add(new MultiOutput(outputConfig.getFormat(), new File(outputDir.toFile(), filename), split));
                     } catch (Exception e) {
                         DataDump.LOGGER.error("Failed to dump category: {}", category, e);
                         failCount++;
@@ -168,20 +319,35 @@ public class CommandHandler {
                 }
             }
 
+            // Categories share no data, so they are built and written concurrently
+            for (OutputCounts counts : writeCategories(outputsByCategory, profile, snapshot, metrics)) {
+                successCount += counts.succeeded();
+                failCount += counts.failed();
+            }
+
             if (successCount == 0 && failCount == 0) {
                 return CommandResult.error("No valid output configurations found in profile");
             }
+            outputDir.toFile().mkdirs();
+            writeMetrics(metrics, new File(outputDir.toFile(), profileName + ".metrics.json"));
+
             if (failCount > 0) {
                 return CommandResult.success(String.format(
-                    "Data dump completed with errors. Success: %d, Failed: %d. Check logs for details.",
-                    successCount, failCount
+                    "Data dump completed with errors. Success: %d, Failed: %d. Check logs for details.\n%s",
+                    successCount, failCount, metrics.summary()
                 ));
             } else {
                 return CommandResult.success(String.format(
-                    "Data dump completed successfully! Generated %d file(s) in: %s",
-                    successCount, outputDir
+                    "Data dump completed successfully! Generated %d file(s) in: %s\n%s",
+                    successCount, outputDir, metrics.summary()
                 ));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CommandResult.error("Data dump was interrupted");
+        } catch (CancellationException e) {
+            // Reported by the job manager, outputs that were not finished were left as they were
+            throw e;
         } catch (Exception e) {
             DataDump.LOGGER.error("Failed to run multi-file dump", e);
             return CommandResult.error("Failed to run dump: " + e.getMessage());
@@ -189,58 +355,367 @@ public class CommandHandler {
     }
 
     /**
-     * Generates a combined dump with all enabled data sources
+     * Writes the outputs of every category, running up to the profile's output parallelism categories at once.
+     * Returns the output counts of each category in category order.
      */
-    private static void generateCombinedDump(File outputFile, ProfileConfig profile) throws IOException {
-        String format = profile.getExport().getFormat().toLowerCase();
+    private static List<OutputCounts> writeCategories(
+            Map<String, List<MultiOutput>> outputsByCategory, ProfileConfig profile, DumpSnapshot snapshot,
+            DumpMetrics metrics
+    ) throws InterruptedException {
+        int parallelism = profile.getExecution() != null ? profile.getExecution().getOutputParallelism() : 1;
+        parallelism = Math.min(parallelism, outputsByCategory.size());
 
-        // Check if format is binary and reject it
-        if ("binary".equals(format)) {
-            throw new IOException("Binary format is not implemented yet");
+        List<OutputCounts> results = new ArrayList<>();
+        if (parallelism <= 1) {
+            for (var entry : outputsByCategory.entrySet()) {
+                results.add(writeCategory(entry.getKey(), entry.getValue(), profile, snapshot, metrics));
+            }
+            return results;
         }
 
-        if ("json".equals(format)) {
-            generateCombinedJsonDump(outputFile, profile);
-        } else if ("nbt".equals(format)) {
-            generateCombinedNbtDump(outputFile, profile);
+        // Output threads inherit the caller's context class loader, mod loaders rely on it to resolve game classes,
+        // and report to the progress of the caller's job
+        DumpProgress progress = DumpProgress.current();
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger nextThreadId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "DataDump-Output-" + nextThreadId.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        });
+        try {
+            List<Future<OutputCounts>> futures = new ArrayList<>();
+            for (var entry : outputsByCategory.entrySet()) {
+                futures.add(executor.submit(() -> progress.supply(
+                    () -> writeCategory(entry.getKey(), entry.getValue(), profile, snapshot, metrics))));
+            }
+
+            int index = 0;
+            for (var entry : outputsByCategory.entrySet()) {
+                try {
+                    results.add(futures.get(index++).get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof CancellationException cancellation) {
+                        throw cancellation;
+                    }
+                    DataDump.LOGGER.error("Failed to dump category: {}", entry.getKey(), e.getCause());
+                    results.add(new OutputCounts(0, entry.getValue().size()));
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes all outputs of one category, a failed output does not stop the others
+     */
+    private static OutputCounts writeCategory(
+            String category, List<MultiOutput> outputs, ProfileConfig profile, DumpSnapshot snapshot, DumpMetrics metrics
+    ) {
+        int successCount = 0;
+        int failCount = 0;
+
+        // Incremental dumps leave registry outputs alone whose registries did not change since they were written
+        Map<String, String> hashes = null;
+        Map<MultiOutput, RegistryManifest> manifests = new HashMap<>();
+        if ("registries".equals(category) && isIncremental(profile)) {
+            try {
+                Collection<RegistryInfo> registries = snapshot.getRegistries();
+                hashes = metrics.measure("registries.hash", () -> RegistryManifest.hashRegistries(registries, profile));
+            } catch (CancellationException e) {
+                throw e;
+            } catch (Exception e) {
+                DataDump.LOGGER.warn("Failed to hash registries, writing every output", e);
+            }
+        }
+
+        // JSON and NBT outputs of the same category are written together in one pass over the data
+        List<MultiOutput> streamed = new ArrayList<>();
+        List<MultiOutput> separate = new ArrayList<>();
+        for (MultiOutput output : outputs) {
+            if (output.split()) {
+                try {
+                    DataDump.LOGGER.info("Running {} dump -> {}", category, output.file().getAbsolutePath());
+                    ProfileConfig tempProfile = createOutputProfile(profile, category, output);
+                    RegistryDataDump.generateSplitDump(output.file(), tempProfile, snapshot, metrics, hashes);
+                    successCount++;
+                } catch (CancellationException e) {
+                    throw e;
+                } catch (Exception e) {
+                    DataDump.LOGGER.error("Failed to dump category: {}", category, e);
+                    failCount++;
+                }
+                continue;
+            }
+            if (hashes != null) {
+                RegistryManifest manifest = new RegistryManifest(
+                    RegistryManifest.settingsOf(createOutputProfile(profile, category, output)), hashes);
+                RegistryManifest previous = RegistryManifest.read(RegistryManifest.sidecarOf(output.file()));
+                if (output.file().isFile() && manifest.isUnchangedSince(previous)) {
+                    DataDump.LOGGER.info("Registries unchanged, keeping {}", output.file().getAbsolutePath());
+                    successCount++;
+                    continue;
+                }
+                manifests.put(output, manifest);
+            }
+            if (isStreamingFormat(output.format())) {
+                streamed.add(output);
+            } else {
+                separate.add(output);
+            }
+        }
+        if (streamed.size() > 1) {
+            try {
+                generateTeeDump(category, streamed, profile, snapshot, metrics);
+                successCount += streamed.size();
+                for (MultiOutput output : streamed) {
+                    writeManifest(output, manifests.get(output));
+                }
+            } catch (CancellationException e) {
+                throw e;
+            } catch (Exception e) {
+                DataDump.LOGGER.error("Failed to dump category: {}", category, e);
+                failCount += streamed.size();
+            }
         } else {
-            throw new IOException("Unknown format: " + format);
+            separate.addAll(streamed);
         }
+
+        for (MultiOutput output : separate) {
+            try {
+                ProfileConfig tempProfile = createOutputProfile(profile, category, output);
+                DataDump.LOGGER.info("Running {} dump -> {}", category, output.file().getAbsolutePath());
+
+                // Route to the appropriate dump handler based on category
+                if ("blocks".equals(category)) {
+                    OutputFiles.write(output.file(), file -> BlockDataDump.generateDump(file, tempProfile, snapshot, metrics));
+                } else {
+                    OutputFiles.write(output.file(), file -> RegistryDataDump.generateDump(file, tempProfile, snapshot, metrics));
+                }
+                successCount++;
+                writeManifest(output, manifests.get(output));
+            } catch (CancellationException e) {
+                throw e;
+            } catch (Exception e) {
+                DataDump.LOGGER.error("Failed to dump category: {}", category, e);
+                failCount++;
+            }
+        }
+        return new OutputCounts(successCount, failCount);
+    }
+
+    private static boolean isIncremental(ProfileConfig profile) {
+        return profile.getRegistries() != null && profile.getRegistries().isIncremental();
     }
 
     /**
-     * Generates a combined JSON dump
+     * Stores the registry hashes of an output that was just written, failing to do so only means
+     * the next incremental dump writes the output again
      */
-    private static void generateCombinedJsonDump(File outputFile, ProfileConfig profile) throws IOException {
-        JsonDataBuilder builder = new JsonDataBuilder();
-        JsonObject root = (JsonObject) builder.createObject();
+    private static void writeManifest(MultiOutput output, RegistryManifest manifest) {
+        if (manifest == null) {
+            return;
+        }
+        try {
+            manifest.writeTo(RegistryManifest.sidecarOf(output.file()));
+        } catch (IOException e) {
+            DataDump.LOGGER.warn("Failed to write registry manifest for {}", output.file().getAbsolutePath(), e);
+        }
+    }
 
-        // Add blocks data if enabled
-        if (profile.getBlocks() != null) {
-            BlockDataProvider blockProvider = PlatformHelper.getBlockDataProvider();
-            Collection<BlockInfo> blocks = blockProvider.getAllBlocks();
-            
-            DataDump.LOGGER.info("Building blocks data for combined dump...");
-            Object blocksData = BlockDataDump.buildBlockData(blocks, profile, builder);
-            builder.addToObject(root, "blocks", blocksData);
+    /**
+     * Creates a temporary single-file profile that writes one output of a category in its own format
+     */
+    private static ProfileConfig createOutputProfile(ProfileConfig profile, String category, MultiOutput output) {
+        ProfileConfig tempProfile = new ProfileConfig();
+        ProfileConfig.ExportConfig exportConfig = new ProfileConfig.ExportConfig();
+        exportConfig.setFormat(output.format());
+        exportConfig.setSingleFile(true);
+        exportConfig.setFilename(output.file().getName());
+
+        // Copy JSON/NBT settings from original profile
+        exportConfig.setJson(profile.getExport().getJson());
+        exportConfig.setNbt(profile.getExport().getNbt());
+
+        tempProfile.setExport(exportConfig);
+        tempProfile.setExecution(profile.getExecution());
+        if ("blocks".equals(category)) {
+            tempProfile.setBlocks(profile.getBlocks());
+        } else {
+            tempProfile.setRegistries(profile.getRegistries());
         }
+        return tempProfile;
+    }
 
-        // Add registries data if enabled
-        if (profile.getRegistries() != null) {
-            RegistryDataProvider registryProvider = PlatformHelper.getRegistryDataProvider();
-            Collection<RegistryInfo> registries = registryProvider.getAllRegistries();
-            
-            DataDump.LOGGER.info("Building registries data for combined dump...");
-            Object registriesData = RegistryDataDump.buildRegistryData(registries, profile, builder);
-            builder.addToObject(root, "registries", registriesData);
+    /**
+     * Writes several JSON and NBT outputs of a category from a single pass over its data
+     */
+    private static void generateTeeDump(
+            String category, List<MultiOutput> outputs, ProfileConfig profile, DumpSnapshot snapshot, DumpMetrics metrics
+    ) throws IOException {
+        // Extract the data before any of the outputs is opened
+        Collection<BlockInfo> blocks = "blocks".equals(category) ? snapshot.getBlocks() : null;
+        Collection<RegistryInfo> registries = "registries".equals(category) ? snapshot.getRegistries() : null;
+
+        DataDump.LOGGER.info("Running {} dump -> {} files in one pass", category, outputs.size());
+        TeeDataBuilder builder = new TeeDataBuilder();
+        // Every output is written to a temporary file, and they are only moved into place once all are complete
+        List<File> temps = new ArrayList<>();
+        try {
+            try (builder) {
+                for (MultiOutput output : outputs) {
+                    File parentDir = output.file().getParentFile();
+                    if (parentDir != null && !parentDir.exists()) {
+                        parentDir.mkdirs();
+                    }
+                    File temp = OutputFiles.tempOf(output.file());
+                    temps.add(temp);
+                    builder.addSink(openStreamingBuilder(temp, output.format(), profile));
+                }
+
+                metrics.measure(category + ".write", () -> {
+                    if (blocks != null) {
+                        BlockDataDump.buildBlockData(blocks, profile, builder);
+                    } else {
+                        RegistryDataDump.buildRegistryData(registries, profile, builder);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            for (int i = 0; i < outputs.size(); i++) {
+                File file = outputs.get(i).file();
+                metrics.recordOutput(temps.get(i));
+                OutputFiles.moveIntoPlace(temps.get(i), file);
+                DataDump.LOGGER.info("Successfully dumped {} data to: {}", category, file.getAbsolutePath());
+            }
+        } finally {
+            for (File temp : temps) {
+                Files.deleteIfExists(temp.toPath());
+            }
+        }
+    }
+
+    /**
+     * Opens the streaming builder for a JSON or NBT output file, using the profile's format settings
+     */
+    private static StreamingDataBuilder openStreamingBuilder(File file, String format, ProfileConfig profile) throws IOException {
+        if ("json".equalsIgnoreCase(format)) {
+            boolean pretty = profile.getExport().getJson() != null && profile.getExport().getJson().isPretty();
+            return StreamingJsonDataBuilder.forFile(file, pretty);
+        }
+        boolean compressed = profile.getExport().getNbt() != null && profile.getExport().getNbt().isCompressed();
+        return StreamingNbtDataBuilder.forFile(file, compressed);
+    }
+
+    /**
+     * Whether a format is written by a streaming builder, so its output can share a pass with others
+     */
+    private static boolean isStreamingFormat(String format) {
+        return "json".equalsIgnoreCase(format) || "nbt".equalsIgnoreCase(format);
+    }
+
+    /**
+     * Removes the extension from a file name
+     */
+    private static String withoutExtension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    /**
+     * Adds the extension of the format to a file name that has none
+     */
+    private static String withExtension(String filename, String format) {
+        if (!filename.contains(".")) {
+            if ("json".equalsIgnoreCase(format)) {
+                filename += ".json";
+            } else if ("nbt".equalsIgnoreCase(format)) {
+                filename += ".nbt";
+            } else if ("binary".equalsIgnoreCase(format)) {
+                filename += ".bin";
+            }
         }
+        return filename;
+    }
 
-        // Choose GSON instance based on format
+    /**
+     * Gets the category of a multi-output entry, which is its name unless set explicitly
+     */
+    private static String categoryOf(String name, ProfileConfig.MultiOutputConfig outputConfig) {
+        return outputConfig.getCategory() != null ? outputConfig.getCategory() : name;
+    }
+
+    /**
+     * Turns off direct encoding for this run when several outputs write registries. Directly encoded elements
+     * are encoded while each output is written, encoding them once up front lets all outputs share the result.
+     */
+    private static void disableRepeatedDirectEncode(ProfileConfig profile) {
+        ProfileConfig.RegistriesConfig registries = profile.getRegistries();
+        if (registries == null || !registries.isDirectEncode()) {
+            return;
+        }
+        long registryOutputs = profile.getMultiOutput().entrySet().stream()
+            .filter(entry -> "registries".equals(categoryOf(entry.getKey(), entry.getValue())))
+            .count();
+        if (registryOutputs > 1) {
+            DataDump.LOGGER.debug("{} outputs write registries, encoding elements once instead of directly", registryOutputs);
+            registries.setDirectEncode(false);
+        }
+    }
+
+    /**
+     * Writes the run metrics next to the output, failing to do so does not fail the dump
+     */
+    private static void writeMetrics(DumpMetrics metrics, File metricsFile) {
+        try {
+            metrics.writeTo(metricsFile);
+            DataDump.LOGGER.info("{}, metrics saved to: {}", metrics.summary(), metricsFile.getAbsolutePath());
+        } catch (IOException e) {
+            DataDump.LOGGER.warn("Failed to write dump metrics to: {}", metricsFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Generates a combined dump with all enabled data sources, recording each phase in the metrics
+     */
+    private static void generateCombinedDump(
+            File outputFile, ProfileConfig profile, DumpSnapshot snapshot, DumpMetrics metrics
+    ) throws IOException {
+        String format = profile.getExport().getFormat().toLowerCase();
+
+        // Extract all enabled data before the output is opened
+        Collection<BlockInfo> blocks = profile.getBlocks() != null ? snapshot.getBlocks() : null;
+        Collection<RegistryInfo> registries = profile.getRegistries() != null ? snapshot.getRegistries() : null;
+
+        if ("json".equals(format)) {
+            metrics.measure("combined.write", () -> generateCombinedJsonDump(outputFile, profile, blocks, registries));
+        } else if ("nbt".equals(format)) {
+            metrics.measure("combined.write", () -> generateCombinedNbtDump(outputFile, profile, blocks, registries));
+        } else if ("binary".equals(format)) {
+            generateCombinedBinaryDump(outputFile, profile, blocks, registries, metrics);
+        } else {
+            throw new IOException("Unknown format: " + format);
+        }
+        metrics.recordOutput(outputFile);
+    }
+
+    /**
+     * Generates a combined JSON dump
+     */
+    private static void generateCombinedJsonDump(
+            File outputFile, ProfileConfig profile, Collection<BlockInfo> blocks, Collection<RegistryInfo> registries
+    ) throws IOException {
         boolean pretty = profile.getExport().getJson() != null && profile.getExport().getJson().isPretty();
-        Gson gson = pretty ? new GsonBuilder().setPrettyPrinting().create() : new Gson();
 
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            gson.toJson(root, writer);
+        try (StreamingJsonDataBuilder builder = StreamingJsonDataBuilder.forFile(outputFile, pretty)) {
+            buildCombinedData(profile, blocks, registries, builder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
         DataDump.LOGGER.info("Successfully dumped combined data to: {}", outputFile.getAbsolutePath());
     }
@@ -248,37 +723,73 @@ public class CommandHandler {
     /**
      * Generates a combined NBT dump
      */
-    private static void generateCombinedNbtDump(File outputFile, ProfileConfig profile) throws IOException {
-        NbtWriter nbtWriter = PlatformHelper.getNbtWriter();
-        NbtCompound root = nbtWriter.createCompound();
-        NbtDataBuilder builder = new NbtDataBuilder(root);
+    private static void generateCombinedNbtDump(
+            File outputFile, ProfileConfig profile, Collection<BlockInfo> blocks, Collection<RegistryInfo> registries
+    ) throws IOException {
+        boolean compressed = profile.getExport().getNbt() != null && profile.getExport().getNbt().isCompressed();
+
+        try (StreamingNbtDataBuilder builder = StreamingNbtDataBuilder.forFile(outputFile, compressed)) {
+            buildCombinedData(profile, blocks, registries, builder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        DataDump.LOGGER.info("Successfully dumped combined data to: {} (NBT, compressed: {})", 
+            outputFile.getAbsolutePath(), compressed);
+    }
+
+    /**
+     * Generates a combined binary dump
+     */
+    private static void generateCombinedBinaryDump(
+            File outputFile, ProfileConfig profile, Collection<BlockInfo> blocks, Collection<RegistryInfo> registries,
+            DumpMetrics metrics
+    ) throws IOException {
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+
+        metrics.measure("combined.encode", () -> {
+            // Add blocks data if enabled
+            if (blocks != null) {
+                DataDump.LOGGER.info("Building blocks data for combined dump...");
+                writer.addBlocks(blocks, profile);
+            }
+
+            // Add registries data if enabled
+            if (registries != null) {
+                DataDump.LOGGER.info("Building registries data for combined dump...");
+                writer.addRegistries(registries, profile);
+            }
+        });
+
+        metrics.measure("combined.write", () -> writer.writeTo(outputFile));
+        DataDump.LOGGER.info("Successfully dumped combined data to: {} (binary)", outputFile.getAbsolutePath());
+    }
+
+    /**
+     * Builds the combined data structure using any builder implementation.
+     * Blocks or registries that are null are disabled in the profile and left out.
+     */
+    private static Object buildCombinedData(
+            ProfileConfig profile, Collection<BlockInfo> blocks, Collection<RegistryInfo> registries,
+            DataStructureBuilder builder
+    ) {
+        Object root = builder.createObject();
 
         // Add blocks data if enabled
-        if (profile.getBlocks() != null) {
-            BlockDataProvider blockProvider = PlatformHelper.getBlockDataProvider();
-            Collection<BlockInfo> blocks = blockProvider.getAllBlocks();
-            
+        if (blocks != null) {
             DataDump.LOGGER.info("Building blocks data for combined dump...");
-            Object blocksData = BlockDataDump.buildBlockData(blocks, profile, builder);
-            builder.addToObject(root, "blocks", blocksData);
+            // A shared property table is added next to "blocks"
+            BlockDataDump.buildBlockData(blocks, profile, builder, root, "blocks");
         }
 
         // Add registries data if enabled
-        if (profile.getRegistries() != null) {
-            RegistryDataProvider registryProvider = PlatformHelper.getRegistryDataProvider();
-            Collection<RegistryInfo> registries = registryProvider.getAllRegistries();
-            
+        if (registries != null) {
             DataDump.LOGGER.info("Building registries data for combined dump...");
-            Object registriesData = RegistryDataDump.buildRegistryData(registries, profile, builder);
+            Object registriesData = builder.createObject();
             builder.addToObject(root, "registries", registriesData);
+            RegistryDataDump.buildRegistryData(registries, profile, builder, registriesData);
         }
 
-        // Write NBT to file
-        boolean compressed = profile.getExport().getNbt() != null && profile.getExport().getNbt().isCompressed();
-        nbtWriter.writeNbt(root, outputFile, compressed);
-
-        DataDump.LOGGER.info("Successfully dumped combined data to: {} (NBT, compressed: {})", 
-            outputFile.getAbsolutePath(), compressed);
+        return root;
     }
 
     /**
@@ -325,12 +836,42 @@ public class CommandHandler {
         }
     }
 
+    /**
+     * Handles the /datadump status command
+     */
+    public static CommandResult handleStatus() {
+        List<String> jobs = jobManager.describeJobs();
+        if (jobs.isEmpty()) {
+            return CommandResult.info("No data dump jobs are queued or running.");
+        }
+
+        StringBuilder message = new StringBuilder();
+        message.append("§6§lData Dump Jobs:§r");
+        for (String job : jobs) {
+            message.append("\n  §e").append(job).append("§r");
+        }
+        return CommandResult.info(message.toString());
+    }
+
+    /**
+     * Handles the /datadump cancel <id> command
+     */
+    public static CommandResult handleCancel(int jobId) {
+        if (!jobManager.cancel(jobId)) {
+            return CommandResult.error("No queued or running data dump job #" + jobId);
+        }
+        return CommandResult.success("Cancelling data dump job #" + jobId);
+    }
+
     /**
      * Handles the /datadump help command
      */
     public static CommandResult handleHelp() {
         String help = "§6§l=== Data Dump Command Help ===§r\n" +
-                "§e/datadump run <profile>§r - Executes data dump using specified profile\n" +
+                "§e/datadump run <profile> [profile...]§r - Starts a background data dump using the specified profiles, " +
+                "several profiles share one extraction\n" +
+                "§e/datadump status§r - Shows queued and running data dump jobs with their progress\n" +
+                "§e/datadump cancel <id>§r - Cancels a queued or running data dump job\n" +
                 "§e/datadump list§r - Lists all available profiles\n" +
                 "§e/datadump reset§r - Resets preset profiles to default values\n" +
                 "§e/datadump help§r - Shows this help message\n" +
@@ -338,6 +879,144 @@ public class CommandHandler {
         return CommandResult.info(help);
     }
 
+    /**
+     * Called by the platform at the end of every server tick, runs queued tick-mode dump work
+     */
+    public static void onServerTick() {
+        TickWorkExecutor.getInstance().tick();
+    }
+
+    /**
+     * Called by the platform once the server has started and its registries can be read. Profiles with
+     * warm-up enabled have their data extracted into the cache by background jobs, so their first run
+     * only writes output.
+     */
+    public static void onServerStarted() {
+        Map<String, ProfileConfig> profiles = loadProfilesWhere(profile -> isCached(profile) && profile.getExecution().isWarmUp());
+        profiles.forEach((profileName, profile) -> {
+            // Same options as a run of the profile, so the run finds the cached entries
+            prepareForCache(profile);
+            jobManager.submit("warm-up " + profileName, "warm-up of profile " + profileName, false,
+                () -> warmUp(profileName, profile), result -> DataDump.LOGGER.info("{}", result.getMessage()));
+        });
+
+        loadProfilesWhere(profile -> profile.getSchedule() != null).forEach((profileName, profile) -> {
+            try {
+                scheduler.schedule(profileName, profile.getSchedule(), () -> submitScheduledRun(profileName));
+            } catch (IllegalArgumentException e) {
+                DataDump.LOGGER.error("Invalid schedule in profile '{}': {}", profileName, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Queues a scheduled run of a profile. While a run of the profile is still queued or running,
+     * the scheduled run joins it instead of overlapping with it.
+     */
+    private static void submitScheduledRun(String profileName) {
+        jobManager.submit("run " + profileName, "scheduled dump of profile " + profileName, true,
+            () -> runScheduled(profileName), result -> DataDump.LOGGER.info("{}", result.getMessage()));
+    }
+
+    /**
+     * Runs a profile on its schedule, loading it again so edits since the server started apply.
+     * Runs are skipped while the profile's data is the same as at its last scheduled run.
+     */
+    private static CommandResult runScheduled(String profileName) {
+        ProfileConfig profile;
+        try {
+            profile = configManager.loadProfile(profileName);
+        } catch (Exception e) {
+            return CommandResult.error("Failed to load profile '" + profileName + "': " + e.getMessage());
+        }
+        if (profile.getExport() == null) {
+            return CommandResult.error("Profile '" + profileName + "' has no export section");
+        }
+        if (profile.getSchedule() == null || !profile.getSchedule().isSkipIfUnchanged()) {
+            return runDump(profileName, profile, snapshotsFor(profile));
+        }
+
+        // The data is extracted once, for the fingerprint and then for the outputs
+        DumpMetrics sharedMetrics = new DumpMetrics();
+        DumpSnapshot shared = snapshotsFor(profile).apply(sharedMetrics);
+        String fingerprint;
+        try {
+            fingerprint = shared.fingerprint();
+        } catch (IOException e) {
+            return CommandResult.error("Failed to extract data: " + e.getMessage());
+        }
+        if (fingerprint.equals(scheduledFingerprints.get(profileName))) {
+            return CommandResult.info("Data of profile '" + profileName + "' is unchanged since its last scheduled run, skipped");
+        }
+
+        CommandResult result = runDump(profileName, profile, metrics -> shared.narrowTo(profile, metrics));
+        if (result.isSuccess()) {
+            scheduledFingerprints.put(profileName, fingerprint);
+        }
+        return result;
+    }
+
+    private static CommandResult warmUp(String profileName, ProfileConfig profile) {
+        try {
+            if (profile.getBlocks() != null) {
+                snapshotCache.getBlocks(profile);
+            }
+            if (profile.getRegistries() != null) {
+                snapshotCache.getRegistries(profile);
+            }
+            return CommandResult.success("Cached data of profile '" + profileName + "'");
+        } catch (IOException e) {
+            return CommandResult.error("Failed to warm up profile '" + profileName + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Called by the platform after datapacks were reloaded, cached registries may be out of date
+     */
+    public static void onRegistriesReloaded() {
+        snapshotCache.invalidateRegistries();
+
+        // Profiles that follow reloads are dumped again, incremental ones only write the registries that changed
+        Map<String, ProfileConfig> profiles = loadProfilesWhere(
+            profile -> profile.getRegistries() != null && profile.getRegistries().isRedumpOnReload());
+        profiles.forEach((profileName, profile) -> jobManager.submit("run " + profileName,
+            "reload dump of profile " + profileName, true, () -> runProfiles(Map.of(profileName, profile)),
+            result -> DataDump.LOGGER.info("{}", result.getMessage())));
+    }
+
+    /**
+     * Called by the platform when the server stops, the next server has registries of its own.
+     * Every job is cancelled, and tick-mode work still queued would never run, so jobs waiting for it are failed.
+     */
+    public static void onServerStopped() {
+        scheduler.cancelAll();
+        jobManager.cancelAll();
+        TickWorkExecutor.getInstance().cancelPending();
+        snapshotCache.invalidateRegistries();
+    }
+
+    /**
+     * Loads every profile with an export section that matches the filter, profiles that fail to load are skipped
+     */
+    private static Map<String, ProfileConfig> loadProfilesWhere(Predicate<ProfileConfig> filter) {
+        Map<String, ProfileConfig> profiles = new LinkedHashMap<>();
+        if (configManager == null) {
+            return profiles;
+        }
+        for (String fileName : configManager.listProfiles()) {
+            String profileName = fileName.substring(0, fileName.length() - ".toml".length());
+            try {
+                ProfileConfig profile = configManager.loadProfile(profileName);
+                if (profile.getExport() != null && filter.test(profile)) {
+                    profiles.put(profileName, profile);
+                }
+            } catch (Exception e) {
+                DataDump.LOGGER.error("Failed to load profile: {}", profileName, e);
+            }
+        }
+        return profiles;
+    }
+
     /**
      * Gets the config manager instance
      */
@@ -345,4 +1024,16 @@ public class CommandHandler {
         return configManager;
     }
 
+    /**
+     * One output of a multi-file dump, a directory of per-registry files when split
+     */
+    private record MultiOutput(String format, File file, boolean split) {
+    }
+
+    /**
+     * Number of outputs of a category that were written or failed
+     */
+    private record OutputCounts(int succeeded, int failed) {
+    }
+
 }
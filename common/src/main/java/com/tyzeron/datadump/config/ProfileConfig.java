@@ -1,5 +1,6 @@
 package com.tyzeron.datadump.config;
 
+import java.util.List;
 import java.util.Map;
 
 
@@ -11,6 +12,9 @@ public class ProfileConfig {
     private ExportConfig export;
     private BlocksConfig blocks;
     private RegistriesConfig registries;
+    private ExecutionConfig execution;
+    private BatchConfig batch;
+    private ScheduleConfig schedule;
     private Map<String, MultiOutputConfig> multi_output;
 
     public ExportConfig getExport() {
@@ -37,6 +41,30 @@ public class ProfileConfig {
         this.registries = registries;
     }
 
+    public ExecutionConfig getExecution() {
+        return execution;
+    }
+
+    public void setExecution(ExecutionConfig execution) {
+        this.execution = execution;
+    }
+
+    public BatchConfig getBatch() {
+        return batch;
+    }
+
+    public void setBatch(BatchConfig batch) {
+        this.batch = batch;
+    }
+
+    public ScheduleConfig getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(ScheduleConfig schedule) {
+        this.schedule = schedule;
+    }
+
     public Map<String, MultiOutputConfig> getMultiOutput() {
         return multi_output;
     }
@@ -123,7 +151,13 @@ public class ProfileConfig {
     public static class BlocksConfig {
 
         private boolean properties;
-        private boolean states;
+        // true, false or "compact"
+        private Object states;
+        private boolean shared_properties;
+        private int parallelism;
+        private List<String> include;
+        private List<String> exclude;
+        private int sample_limit;
 
         public boolean isProperties() {
             return properties;
@@ -133,18 +167,79 @@ public class ProfileConfig {
             this.properties = properties;
         }
 
+        /**
+         * Whether block states are included, either one by one or in compact form
+         */
         public boolean isStates() {
-            return states;
+            return Boolean.TRUE.equals(states) || isCompactStates();
         }
 
-        public void setStates(boolean states) {
+        /**
+         * Whether states are written as an id range per block instead of one entry per state
+         */
+        public boolean isCompactStates() {
+            return states instanceof String mode && "compact".equalsIgnoreCase(mode);
+        }
+
+        public void setStates(Object states) {
             this.states = states;
         }
+
+        public boolean isSharedProperties() {
+            return shared_properties;
+        }
+
+        public void setSharedProperties(boolean shared_properties) {
+            this.shared_properties = shared_properties;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public List<String> getInclude() {
+            return include;
+        }
+
+        public void setInclude(List<String> include) {
+            this.include = include;
+        }
+
+        public List<String> getExclude() {
+            return exclude;
+        }
+
+        public void setExclude(List<String> exclude) {
+            this.exclude = exclude;
+        }
+
+        /**
+         * Maximum number of blocks to dump, 0 for no limit
+         */
+        public int getSampleLimit() {
+            return sample_limit;
+        }
+
+        public void setSampleLimit(int sample_limit) {
+            this.sample_limit = sample_limit;
+        }
     }
 
     public static class RegistriesConfig {
 
         private boolean codec;
+        private int parallelism;
+        private boolean direct_encode;
+        private List<String> include;
+        private List<String> exclude;
+        private int sample_limit;
+        private Map<String, List<String>> projection;
+        private boolean incremental;
+        private boolean redump_on_reload;
 
         public boolean isCodec() {
             return codec;
@@ -153,12 +248,213 @@ public class ProfileConfig {
         public void setCodec(boolean codec) {
             this.codec = codec;
         }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public boolean isDirectEncode() {
+            return direct_encode;
+        }
+
+        public void setDirectEncode(boolean direct_encode) {
+            this.direct_encode = direct_encode;
+        }
+
+        public List<String> getInclude() {
+            return include;
+        }
+
+        public void setInclude(List<String> include) {
+            this.include = include;
+        }
+
+        public List<String> getExclude() {
+            return exclude;
+        }
+
+        public void setExclude(List<String> exclude) {
+            this.exclude = exclude;
+        }
+
+        /**
+         * Maximum number of entries per registry to dump, 0 for no limit
+         */
+        public int getSampleLimit() {
+            return sample_limit;
+        }
+
+        public void setSampleLimit(int sample_limit) {
+            this.sample_limit = sample_limit;
+        }
+
+        /**
+         * Dotted field paths to keep in encoded elements, keyed by registry id or glob
+         */
+        public Map<String, List<String>> getProjection() {
+            return projection;
+        }
+
+        public void setProjection(Map<String, List<String>> projection) {
+            this.projection = projection;
+        }
+
+        /**
+         * Whether registry outputs are only written again when their registries changed since the last dump
+         */
+        public boolean isIncremental() {
+            return incremental;
+        }
+
+        public void setIncremental(boolean incremental) {
+            this.incremental = incremental;
+        }
+
+        /**
+         * Whether this profile is run whenever the server reloads its datapacks
+         */
+        public boolean isRedumpOnReload() {
+            return redump_on_reload;
+        }
+
+        public void setRedumpOnReload(boolean redump_on_reload) {
+            this.redump_on_reload = redump_on_reload;
+        }
+    }
+
+    public static class ExecutionConfig {
+
+        private String mode;
+        private int tick_budget_ms;
+        private int output_parallelism;
+        private boolean cache;
+        private boolean warm_up;
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public int getTickBudgetMs() {
+            return tick_budget_ms;
+        }
+
+        public void setTickBudgetMs(int tick_budget_ms) {
+            this.tick_budget_ms = tick_budget_ms;
+        }
+
+        /**
+         * Number of multi-file categories built and written at the same time
+         */
+        public int getOutputParallelism() {
+            return output_parallelism;
+        }
+
+        public void setOutputParallelism(int output_parallelism) {
+            this.output_parallelism = output_parallelism;
+        }
+
+        /**
+         * Whether extracted blocks and registries are kept for later runs until the registries reload
+         */
+        public boolean isCache() {
+            return cache;
+        }
+
+        public void setCache(boolean cache) {
+            this.cache = cache;
+        }
+
+        /**
+         * Whether this profile's data is extracted into the cache in the background when the server starts
+         */
+        public boolean isWarmUp() {
+            return warm_up;
+        }
+
+        public void setWarmUp(boolean warm_up) {
+            this.warm_up = warm_up;
+        }
+    }
+
+    public static class BatchConfig {
+
+        private List<String> profiles;
+
+        /**
+         * Names of the profiles run together with this one from a single extraction
+         */
+        public List<String> getProfiles() {
+            return profiles;
+        }
+
+        public void setProfiles(List<String> profiles) {
+            this.profiles = profiles;
+        }
+    }
+
+    public static class ScheduleConfig {
+
+        private String interval;
+        private String cron;
+        private boolean run_on_start;
+        private boolean skip_if_unchanged;
+
+        /**
+         * Time between runs, such as "30m", "6h" or "1d"
+         */
+        public String getInterval() {
+            return interval;
+        }
+
+        public void setInterval(String interval) {
+            this.interval = interval;
+        }
+
+        /**
+         * Cron expression with minute, hour, day of month, month and day of week fields, used instead of the interval
+         */
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public boolean isRunOnStart() {
+            return run_on_start;
+        }
+
+        public void setRunOnStart(boolean run_on_start) {
+            this.run_on_start = run_on_start;
+        }
+
+        /**
+         * Whether scheduled runs are skipped when the profile's data is the same as at its last scheduled run
+         */
+        public boolean isSkipIfUnchanged() {
+            return skip_if_unchanged;
+        }
+
+        public void setSkipIfUnchanged(boolean skip_if_unchanged) {
+            this.skip_if_unchanged = skip_if_unchanged;
+        }
     }
 
     public static class MultiOutputConfig {
 
         private String file;
         private String format;
+        private String category;
+        private boolean split;
 
         public String getFile() {
             return file;
@@ -175,6 +471,28 @@ public class ProfileConfig {
         public void setFormat(String format) {
             this.format = format;
         }
+
+        /**
+         * Category of data written to this output, null when the output is named after its category
+         */
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        /**
+         * Whether each registry is written to a file of its own, in a directory named after the file
+         */
+        public boolean isSplit() {
+            return split;
+        }
+
+        public void setSplit(boolean split) {
+            this.split = split;
+        }
     }
 
 }
@@ -0,0 +1,227 @@
+package com.tyzeron.datadump.job;
+
+import com.tyzeron.datadump.DataDump;
+import com.tyzeron.datadump.command.CommandResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+
+/**
+ * Runs data dump jobs on background threads so the server thread is never blocked by encoding or file writing.
+ * <p>
+ * Up to a fixed number of jobs run at once, in submission order. Jobs that write output run one at a time,
+ * so two dumps never write the same file concurrently, while jobs that only extract data can run next to them.
+ * A job submitted while an identical one is queued or running joins that job instead of being queued again.
+ * Running jobs stop at their next progress checkpoint when cancelled.
+ */
+public class DumpJobManager {
+
+    private final int maxConcurrentJobs;
+    private final AtomicInteger nextJobId = new AtomicInteger(1);
+    private final AtomicInteger nextThreadId = new AtomicInteger(1);
+    private final ExecutorService executor;
+
+    // Guarded by this, jobs stay in the map until they finish
+    private final Deque<Job> queue = new ArrayDeque<>();
+    private final Map<Integer, Job> jobs = new LinkedHashMap<>();
+    private int runningJobs = 0;
+    private boolean writerRunning = false;
+
+    public DumpJobManager(int maxConcurrentJobs) {
+        this.maxConcurrentJobs = Math.max(maxConcurrentJobs, 1);
+        this.executor = Executors.newFixedThreadPool(this.maxConcurrentJobs, runnable -> {
+            Thread thread = new Thread(runnable, "DataDump-Job-" + nextThreadId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a job, or joins the queued or running job with the same key. The callback receives the result,
+     * prefixed with the job id, on the job thread; callers are responsible for handing it back to the server thread.
+     *
+     * @param key identifies jobs doing the same work, e.g. the profiles they run
+     * @param writesOutput whether the job writes files, such jobs never run at the same time
+     */
+    public synchronized Submission submit(
+            String key, String description, boolean writesOutput, Supplier<CommandResult> job, Consumer<CommandResult> callback
+    ) {
+        for (Job existing : jobs.values()) {
+            if (existing.key.equals(key) && !existing.progress.isCancelled()) {
+                existing.callbacks.add(callback);
+                DataDump.LOGGER.info("Request joined data dump job #{}: {}", existing.id, description);
+                return new Submission(existing.id, true);
+            }
+        }
+
+        Job newJob = new Job(nextJobId.getAndIncrement(), key, description, writesOutput, job);
+        newJob.callbacks.add(callback);
+        jobs.put(newJob.id, newJob);
+        queue.add(newJob);
+        DataDump.LOGGER.info("Queued data dump job #{}: {}", newJob.id, description);
+        dispatch();
+        return new Submission(newJob.id, false);
+    }
+
+    /**
+     * Cancels a job. A queued job is dropped right away, a running job stops at its next checkpoint.
+     * Returns false if there is no such job.
+     */
+    public boolean cancel(int jobId) {
+        Job cancelled;
+        synchronized (this) {
+            cancelled = jobs.get(jobId);
+            if (cancelled == null) {
+                return false;
+            }
+            cancelled.progress.cancel();
+            if (!queue.remove(cancelled)) {
+                DataDump.LOGGER.info("Cancelling data dump job #{}", jobId);
+                return true;
+            }
+            jobs.remove(jobId);
+        }
+        DataDump.LOGGER.info("Cancelled queued data dump job #{}", jobId);
+        notifyCallbacks(cancelled, CommandResult.error("Data dump was cancelled before it started"));
+        return true;
+    }
+
+    /**
+     * Cancels every queued and running job, for when the server stops
+     */
+    public void cancelAll() {
+        List<Integer> jobIds;
+        synchronized (this) {
+            jobIds = new ArrayList<>(jobs.keySet());
+        }
+        for (int jobId : jobIds) {
+            cancel(jobId);
+        }
+    }
+
+    /**
+     * Describes every queued and running job, in submission order
+     */
+    public synchronized List<String> describeJobs() {
+        List<String> lines = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            String state = queue.contains(job) ? "queued" : job.progress.isCancelled() ? "cancelling" : "running";
+            String line = String.format("#%d %s (%s)", job.id, job.description, state);
+            if (!queue.contains(job)) {
+                line += ": " + job.progress.summary();
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * Starts queued jobs while there is room, skipping writers while another writer runs
+     */
+    private synchronized void dispatch() {
+        Iterator<Job> iterator = queue.iterator();
+        while (iterator.hasNext() && runningJobs < maxConcurrentJobs) {
+            Job next = iterator.next();
+            if (next.writesOutput && writerRunning) {
+                continue;
+            }
+            iterator.remove();
+            runningJobs++;
+            writerRunning |= next.writesOutput;
+            executor.execute(() -> run(next));
+        }
+    }
+
+    private void run(Job job) {
+        // Kept when the task throws an Error, so the job is still reported and its slot freed
+        CommandResult result = CommandResult.error("Data dump failed unexpectedly, check the server log");
+        job.progress.start();
+        try {
+            result = job.progress.supply(job.task);
+            DataDump.LOGGER.info("Data dump job #{} finished", job.id);
+        } catch (Exception e) {
+            // A job cancelled after its last checkpoint ends normally and keeps its result
+            if (e instanceof CancellationException || job.progress.isCancelled()) {
+                DataDump.LOGGER.info("Data dump job #{} was cancelled", job.id);
+                result = CommandResult.error("Data dump was cancelled, unfinished outputs were left as they were");
+            } else {
+                DataDump.LOGGER.error("Data dump job #{} failed", job.id, e);
+                result = CommandResult.error("Failed to run data dump: " + e.getMessage());
+            }
+        } catch (Error e) {
+            DataDump.LOGGER.error("Data dump job #{} failed", job.id, e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                jobs.remove(job.id);
+                runningJobs--;
+                if (job.writesOutput) {
+                    writerRunning = false;
+                }
+                dispatch();
+            }
+            notifyCallbacks(job, result);
+        }
+    }
+
+    private void notifyCallbacks(Job job, CommandResult result) {
+        CommandResult withId = withJobId(job.id, result);
+        List<Consumer<CommandResult>> callbacks;
+        synchronized (this) {
+            callbacks = new ArrayList<>(job.callbacks);
+        }
+        for (Consumer<CommandResult> callback : callbacks) {
+            try {
+                callback.accept(withId);
+            } catch (Exception e) {
+                DataDump.LOGGER.error("Failed to report the result of data dump job #{}", job.id, e);
+            }
+        }
+    }
+
+    private static CommandResult withJobId(int jobId, CommandResult result) {
+        String message = "[Job #" + jobId + "] " + result.getMessage();
+        return switch (result.getType()) {
+            case SUCCESS -> CommandResult.success(message);
+            case ERROR -> CommandResult.error(message);
+            case INFO -> CommandResult.info(message);
+        };
+    }
+
+    /**
+     * Id of the job a request was queued as, and whether it joined a job that was already queued or running
+     */
+    public record Submission(int jobId, boolean joined) {
+    }
+
+    private static final class Job {
+        private final int id;
+        private final String key;
+        private final String description;
+        private final boolean writesOutput;
+        private final Supplier<CommandResult> task;
+        private final DumpProgress progress = new DumpProgress();
+        private final List<Consumer<CommandResult>> callbacks = new ArrayList<>();
+
+        private Job(int id, String key, String description, boolean writesOutput, Supplier<CommandResult> task) {
+            this.id = id;
+            this.key = key;
+            this.description = description;
+            this.writesOutput = writesOutput;
+            this.task = task;
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.tyzeron.datadump.job;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Collects timing, allocation and size figures for one dump run.
+ * <p>
+ * Each phase records wall time, plus CPU time and allocated bytes of the thread running the dump. Work done by
+ * parallel workers or on server ticks only shows up in wall time. Streaming formats build, serialize and write
+ * in a single pass, so for them those steps are reported together as one write phase.
+ * <p>
+ * Outputs of a run may be written concurrently, so figures can be recorded from several threads.
+ */
+public class DumpMetrics {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final long startWall = System.nanoTime();
+    private final long startCpu = currentCpuTime();
+    private final long startAllocated = currentAllocatedBytes();
+
+    private final List<Phase> phases = new ArrayList<>();
+    private final List<RegistryCount> registryCounts = new ArrayList<>();
+    private final List<Output> outputs = new ArrayList<>();
+    private int blockCount = -1;
+    private int stateCount = -1;
+
+    /**
+     * Runs a phase that produces a value and records its figures
+     */
+    public <T> T measure(String name, PhaseTask<T> task) throws IOException {
+        long wall = System.nanoTime();
+        long cpu = currentCpuTime();
+        long allocated = currentAllocatedBytes();
+        try {
+            return task.run();
+        } finally {
+            Phase phase = new Phase(name, System.nanoTime() - wall, difference(currentCpuTime(), cpu),
+                difference(currentAllocatedBytes(), allocated));
+            synchronized (this) {
+                phases.add(phase);
+            }
+        }
+    }
+
+    /**
+     * Runs a phase without a result and records its figures
+     */
+    public void measure(String name, PhaseAction action) throws IOException {
+        measure(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public synchronized void recordBlocks(Collection<BlockInfo> blocks) {
+        blockCount = blocks.size();
+        stateCount = 0;
+        for (BlockInfo block : blocks) {
+            stateCount += block.getStates().size();
+        }
+    }
+
+    public synchronized void recordRegistries(Collection<RegistryInfo> registries) {
+        registryCounts.clear();
+        for (RegistryInfo registry : registries) {
+            registryCounts.add(new RegistryCount(registry.getRegistryIdentifier(), registry.getEntries().size()));
+        }
+    }
+
+    public synchronized void recordOutput(File file) {
+        outputs.add(new Output(file.getAbsolutePath(), file.length()));
+        DumpProgress.current().addBytesWritten(file.length());
+    }
+
+    /**
+     * Short human-readable summary for the command result
+     */
+    public synchronized String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Took %.2fs", (System.nanoTime() - startWall) / 1e9));
+
+        if (!phases.isEmpty()) {
+            summary.append(" (");
+            for (int i = 0; i < phases.size(); i++) {
+                Phase phase = phases.get(i);
+                if (i > 0) {
+                    summary.append(", ");
+                }
+                summary.append(String.format("%s %.2fs", phase.name, phase.wallNanos / 1e9));
+            }
+            summary.append(")");
+        }
+
+        long bytesWritten = 0;
+        for (Output output : outputs) {
+            bytesWritten += output.bytes;
+        }
+        summary.append(String.format(", wrote %.2f MB", bytesWritten / (1024.0 * 1024.0)));
+        return summary.toString();
+    }
+
+    /**
+     * Writes all recorded figures as JSON
+     */
+    public synchronized void writeTo(File file) throws IOException {
+        JsonObject root = new JsonObject();
+        JsonObject total = new JsonObject();
+        addFigures(total, System.nanoTime() - startWall, difference(currentCpuTime(), startCpu),
+            difference(currentAllocatedBytes(), startAllocated));
+        root.add("total", total);
+
+        JsonArray phaseArray = new JsonArray();
+        for (Phase phase : phases) {
+            JsonObject phaseObject = new JsonObject();
+            phaseObject.addProperty("name", phase.name);
+            addFigures(phaseObject, phase.wallNanos, phase.cpuNanos, phase.allocatedBytes);
+            phaseArray.add(phaseObject);
+        }
+        root.add("phases", phaseArray);
+
+        if (blockCount >= 0) {
+            JsonObject blocks = new JsonObject();
+            blocks.addProperty("blocks", blockCount);
+            blocks.addProperty("states", stateCount);
+            root.add("blocks", blocks);
+        }
+
+        if (!registryCounts.isEmpty()) {
+            JsonObject registries = new JsonObject();
+            for (RegistryCount registry : registryCounts) {
+                registries.addProperty(registry.identifier, registry.entries);
+            }
+            root.add("registries", registries);
+        }
+
+        JsonArray outputArray = new JsonArray();
+        for (Output output : outputs) {
+            JsonObject outputObject = new JsonObject();
+            outputObject.addProperty("file", output.path);
+            outputObject.addProperty("bytes", output.bytes);
+            outputArray.add(outputObject);
+        }
+        root.add("outputs", outputArray);
+
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            GSON.toJson(root, writer);
+        }
+    }
+
+    private static void addFigures(JsonObject object, long wallNanos, long cpuNanos, long allocatedBytes) {
+        object.addProperty("wall_ms", wallNanos / 1e6);
+        object.addProperty("cpu_ms", cpuNanos < 0 ? -1 : cpuNanos / 1e6);
+        object.addProperty("allocated_bytes", allocatedBytes);
+    }
+
+    // Unsupported figures are reported as -1
+    private static long difference(long end, long start) {
+        return end < 0 || start < 0 ? -1 : end - start;
+    }
+
+    private static long currentCpuTime() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long currentAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    @FunctionalInterface
+    public interface PhaseTask<T> {
+        T run() throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface PhaseAction {
+        void run() throws IOException;
+    }
+
+    private record Phase(String name, long wallNanos, long cpuNanos, long allocatedBytes) {
+    }
+
+    private record RegistryCount(String identifier, int entries) {
+    }
+
+    private record Output(String path, long bytes) {
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.tyzeron.datadump.job;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+
+/**
+ * Progress and cancellation state of one dump job.
+ * <p>
+ * The job manager makes a job's progress the current one of the thread running it, and code doing long
+ * loops reports work and calls {@link #checkpoint()} through {@link #current()}, without it being passed
+ * down every call. Threads working for a job take its progress along with {@link #supply}. Entries are
+ * counted as each output starts writing them, so the total grows while a job runs.
+ */
+public class DumpProgress {
+
+    private static final ThreadLocal<DumpProgress> CURRENT = new ThreadLocal<>();
+
+    private volatile long startNanos = System.nanoTime();
+    private final AtomicLong entriesDone = new AtomicLong();
+    private final AtomicLong entriesTotal = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private volatile boolean cancelled = false;
+
+    /**
+     * Gets the progress of the job the calling thread works for. Outside of jobs, a progress that
+     * nobody watches is returned, so callers never need to check.
+     */
+    public static DumpProgress current() {
+        DumpProgress progress = CURRENT.get();
+        return progress != null ? progress : new DumpProgress();
+    }
+
+    /**
+     * Runs a task on the calling thread with this as the current progress
+     */
+    public <T> T supply(Supplier<T> task) {
+        DumpProgress previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Starts timing the job, so time spent queued does not count towards the remaining time estimate
+     */
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the job was cancelled, so it stops at the next safe point
+     */
+    public void checkpoint() {
+        if (cancelled) {
+            throw new CancellationException("Data dump was cancelled");
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void addEntriesTotal(long entries) {
+        entriesTotal.addAndGet(entries);
+    }
+
+    public void entryDone() {
+        entriesDone.incrementAndGet();
+    }
+
+    public void addBytesWritten(long bytes) {
+        bytesWritten.addAndGet(bytes);
+    }
+
+    /**
+     * Short human-readable progress, e.g. "1200/3400 entries, 2.1 MB written, about 4s left"
+     */
+    public String summary() {
+        long done = entriesDone.get();
+        long total = Math.max(entriesTotal.get(), done);
+        StringBuilder summary = new StringBuilder();
+        summary.append(done).append('/').append(total).append(" entries, ");
+        summary.append(String.format("%.1f MB written", bytesWritten.get() / (1024.0 * 1024.0)));
+
+        // Extrapolated from the entries done so far
+        if (done > 0 && done < total) {
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            long remainingSeconds = elapsedMillis * (total - done) / done / 1000;
+            summary.append(", about ").append(remainingSeconds).append("s left");
+        }
+        return summary.toString();
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.tyzeron.datadump.job;
+
+import com.tyzeron.datadump.DataDump;
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.util.CronExpression;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+
+/**
+ * Triggers profiles on their schedules while the server is running.
+ * <p>
+ * A single timer thread only decides when a profile is due and hands it to a trigger, which is expected to
+ * submit a background job and return right away. The next run is planned from the time the trigger fired,
+ * so a long dump never makes runs pile up; overlapping runs are left to the job manager to coalesce.
+ */
+public class DumpScheduler {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "DataDump-Scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this, replaced whenever a profile is planned again
+    private final List<ScheduledFuture<?>> planned = new ArrayList<>();
+    // Guarded by this, increased by cancelAll so triggers running at that moment do not plan their profile again
+    private int generation = 0;
+
+    /**
+     * Starts triggering a profile on its schedule
+     *
+     * @throws IllegalArgumentException if the schedule has neither a valid interval nor a valid cron expression
+     */
+    public synchronized void schedule(String profileName, ProfileConfig.ScheduleConfig config, Runnable trigger) {
+        Function<ZonedDateTime, ZonedDateTime> nextRun;
+        if (config.getCron() != null && !config.getCron().isBlank()) {
+            CronExpression cron = CronExpression.parse(config.getCron());
+            nextRun = cron::next;
+        } else if (config.getInterval() != null && !config.getInterval().isBlank()) {
+            Duration interval = parseInterval(config.getInterval());
+            nextRun = now -> now.plus(interval);
+        } else {
+            throw new IllegalArgumentException("Schedule needs an interval or a cron expression");
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        plan(profileName, config.isRunOnStart() ? now : nextRun.apply(now), nextRun, trigger, generation);
+    }
+
+    /**
+     * Stops every schedule, runs that were already triggered are not affected
+     */
+    public synchronized void cancelAll() {
+        for (ScheduledFuture<?> future : planned) {
+            future.cancel(false);
+        }
+        planned.clear();
+        generation++;
+    }
+
+    private synchronized void plan(
+            String profileName, ZonedDateTime at, Function<ZonedDateTime, ZonedDateTime> nextRun, Runnable trigger,
+            int planGeneration
+    ) {
+        // Schedules cancelled while their trigger ran are not planned again
+        if (planGeneration != generation) {
+            return;
+        }
+        long delay = Math.max(Duration.between(ZonedDateTime.now(), at).toMillis(), 0);
+        DataDump.LOGGER.info("Next scheduled dump of profile '{}' at {}", profileName, at);
+
+        ScheduledFuture<?>[] self = new ScheduledFuture<?>[1];
+        self[0] = timer.schedule(() -> {
+            synchronized (this) {
+                // Cancelled schedules are no longer planned and must not plan themselves again
+                if (!planned.remove(self[0])) {
+                    return;
+                }
+            }
+            try {
+                trigger.run();
+            } catch (Exception e) {
+                DataDump.LOGGER.error("Failed to start scheduled dump of profile '{}'", profileName, e);
+            }
+            plan(profileName, nextRun.apply(ZonedDateTime.now()), nextRun, trigger, planGeneration);
+        }, delay, TimeUnit.MILLISECONDS);
+        planned.add(self[0]);
+    }
+
+    /**
+     * Parses an interval such as "90s", "30m", "6h" or "1d"
+     */
+    static Duration parseInterval(String interval) {
+        String trimmed = interval.trim().toLowerCase();
+        if (trimmed.length() < 2) {
+            throw new IllegalArgumentException("Invalid schedule interval: " + interval);
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid schedule interval: " + interval);
+        }
+        Duration duration = switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            case 'd' -> Duration.ofDays(amount);
+            default -> throw new IllegalArgumentException("Invalid schedule interval, use s, m, h or d: " + interval);
+        };
+        if (duration.compareTo(Duration.ofMinutes(1)) < 0) {
+            throw new IllegalArgumentException("Schedule interval must be at least a minute: " + interval);
+        }
+        return duration;
+    }
+
+}
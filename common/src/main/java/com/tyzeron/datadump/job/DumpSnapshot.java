@@ -0,0 +1,272 @@
+package com.tyzeron.datadump.job;
+
+import com.tyzeron.datadump.BlockDataDump;
+import com.tyzeron.datadump.RegistryDataDump;
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.registry.NbtRegistryEntryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryEntryInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.builder.HashingDataBuilder;
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.util.FieldProjection;
+import com.tyzeron.datadump.util.IdentifierFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+
+/**
+ * Provider data of one dump run, shared by every output the run writes.
+ * <p>
+ * Blocks and registries are extracted the first time an output asks for them and kept as read-only
+ * collections, so extraction and codec encoding happen once per run however many files are produced.
+ * The extraction phases are recorded in the run's metrics at that point.
+ * <p>
+ * A batch of profiles shares one snapshot taken with the union of their options, and each profile
+ * then reads a {@link #narrowTo narrowed} view of it.
+ */
+public class DumpSnapshot {
+
+    private final ProfileConfig profile;
+    private final DumpMetrics metrics;
+    private final Source<Collection<BlockInfo>> blockSource;
+    private final Source<Collection<RegistryInfo>> registrySource;
+
+    // Separate locks, so blocks and registries can be extracted at the same time
+    private final Object blocksLock = new Object();
+    private final Object registriesLock = new Object();
+
+    private Collection<BlockInfo> blocks;
+    private Collection<RegistryInfo> registries;
+
+    /**
+     * @param profile the profile whose block, registry and execution options are used for extraction
+     */
+    public DumpSnapshot(ProfileConfig profile, DumpMetrics metrics) {
+        this(profile, metrics, () -> BlockDataDump.collectBlocks(profile), () -> RegistryDataDump.collectRegistries(profile));
+    }
+
+    DumpSnapshot(
+            ProfileConfig profile, DumpMetrics metrics,
+            Source<Collection<BlockInfo>> blockSource, Source<Collection<RegistryInfo>> registrySource
+    ) {
+        this.profile = profile;
+        this.metrics = metrics;
+        this.blockSource = blockSource;
+        this.registrySource = registrySource;
+    }
+
+    /**
+     * Creates a snapshot that holds everything the given profiles need
+     *
+     * @see #unionOf
+     */
+    public static DumpSnapshot forProfiles(List<ProfileConfig> profiles, DumpMetrics metrics) {
+        return new DumpSnapshot(unionOf(profiles), metrics);
+    }
+
+    /**
+     * Creates the profile whose extraction covers all given profiles. Filters, sample limits and projections
+     * are only applied during extraction when all profiles agree on them, otherwise everything is extracted
+     * and each profile narrows it down afterwards.
+     */
+    public static ProfileConfig unionOf(List<ProfileConfig> profiles) {
+        ProfileConfig union = new ProfileConfig();
+
+        List<ProfileConfig.BlocksConfig> blockConfigs = new ArrayList<>();
+        List<ProfileConfig.RegistriesConfig> registryConfigs = new ArrayList<>();
+        for (ProfileConfig profile : profiles) {
+            if (profile.getBlocks() != null) {
+                blockConfigs.add(profile.getBlocks());
+            }
+            if (profile.getRegistries() != null) {
+                registryConfigs.add(profile.getRegistries());
+            }
+            // Tick mode is kept if any profile asks for it, so the batch never blocks the server harder than one of its profiles
+            ProfileConfig.ExecutionConfig execution = profile.getExecution();
+            if (execution != null && (union.getExecution() == null || ("tick".equalsIgnoreCase(execution.getMode())
+                    && !"tick".equalsIgnoreCase(union.getExecution().getMode())))) {
+                union.setExecution(execution);
+            }
+        }
+
+        if (!blockConfigs.isEmpty()) {
+            ProfileConfig.BlocksConfig blocks = new ProfileConfig.BlocksConfig();
+            ProfileConfig.BlocksConfig first = blockConfigs.get(0);
+            boolean sameSelection = true;
+            for (ProfileConfig.BlocksConfig config : blockConfigs) {
+                blocks.setParallelism(Math.max(blocks.getParallelism(), config.getParallelism()));
+                sameSelection &= sameSelection(first.getInclude(), first.getExclude(), first.getSampleLimit(),
+                    config.getInclude(), config.getExclude(), config.getSampleLimit());
+            }
+            if (sameSelection) {
+                blocks.setInclude(first.getInclude());
+                blocks.setExclude(first.getExclude());
+                blocks.setSampleLimit(first.getSampleLimit());
+            }
+            union.setBlocks(blocks);
+        }
+
+        if (!registryConfigs.isEmpty()) {
+            ProfileConfig.RegistriesConfig registries = new ProfileConfig.RegistriesConfig();
+            ProfileConfig.RegistriesConfig first = registryConfigs.get(0);
+            boolean sameSelection = true;
+            boolean sameProjection = true;
+            for (ProfileConfig.RegistriesConfig config : registryConfigs) {
+                registries.setCodec(registries.isCodec() || config.isCodec());
+                registries.setParallelism(Math.max(registries.getParallelism(), config.getParallelism()));
+                sameSelection &= sameSelection(first.getInclude(), first.getExclude(), first.getSampleLimit(),
+                    config.getInclude(), config.getExclude(), config.getSampleLimit());
+                sameProjection &= Objects.equals(first.getProjection(), config.getProjection());
+            }
+            if (sameSelection) {
+                registries.setInclude(first.getInclude());
+                registries.setExclude(first.getExclude());
+                registries.setSampleLimit(first.getSampleLimit());
+            }
+            if (sameProjection) {
+                registries.setProjection(first.getProjection());
+            }
+            // Direct encoding stays off, it would encode the elements again for every output of the batch
+            union.setRegistries(registries);
+        }
+
+        return union;
+    }
+
+    /**
+     * Creates a snapshot for one profile from the data of this one, leaving out the blocks, registries,
+     * entries and fields the profile does not ask for. Nothing is extracted again.
+     */
+    public DumpSnapshot narrowTo(ProfileConfig target, DumpMetrics targetMetrics) {
+        return new DumpSnapshot(target, targetMetrics,
+            () -> narrowBlocks(getBlocks(), target.getBlocks()),
+            () -> narrowRegistries(getRegistries(), target.getRegistries()));
+    }
+
+    /**
+     * Gets the blocks of this run, extracting them on first use
+     */
+    public Collection<BlockInfo> getBlocks() throws IOException {
+        synchronized (blocksLock) {
+            if (blocks == null) {
+                DumpProgress.current().checkpoint();
+                Collection<BlockInfo> collected = metrics.measure("blocks.extract", blockSource::get);
+                blocks = Collections.unmodifiableList(new ArrayList<>(collected));
+                metrics.recordBlocks(blocks);
+            }
+            return blocks;
+        }
+    }
+
+    /**
+     * Gets the registries of this run, extracting and encoding them on first use
+     */
+    public Collection<RegistryInfo> getRegistries() throws IOException {
+        synchronized (registriesLock) {
+            if (registries == null) {
+                DumpProgress.current().checkpoint();
+                Collection<RegistryInfo> collected = metrics.measure("registries.extract", registrySource::get);
+                registries = Collections.unmodifiableList(new ArrayList<>(collected));
+                metrics.recordRegistries(registries);
+            }
+            return registries;
+        }
+    }
+
+    /**
+     * Content hash of the blocks and registries of this run as the profile writes them, extracting them if needed.
+     * Two snapshots with the same fingerprint produce the same outputs.
+     */
+    public String fingerprint() throws IOException {
+        HashingDataBuilder builder = new HashingDataBuilder();
+        if (profile.getBlocks() != null) {
+            BlockDataDump.buildBlockData(getBlocks(), profile, builder);
+        }
+        if (profile.getRegistries() != null) {
+            RegistryDataDump.buildRegistryData(getRegistries(), profile, builder, builder.createObject());
+        }
+        return builder.digest();
+    }
+
+    public ProfileConfig getProfile() {
+        return profile;
+    }
+
+    private Collection<BlockInfo> narrowBlocks(Collection<BlockInfo> source, ProfileConfig.BlocksConfig config) {
+        if (config == null) {
+            return source;
+        }
+        IdentifierFilter filter = IdentifierFilter.of(config.getInclude(), config.getExclude());
+        List<BlockInfo> narrowed = new ArrayList<>();
+        for (BlockInfo block : source) {
+            if (config.getSampleLimit() > 0 && narrowed.size() >= config.getSampleLimit()) {
+                break;
+            }
+            if (filter.matches(block.getIdentifier())) {
+                narrowed.add(block);
+            }
+        }
+        return narrowed;
+    }
+
+    private Collection<RegistryInfo> narrowRegistries(Collection<RegistryInfo> source, ProfileConfig.RegistriesConfig config) {
+        if (config == null) {
+            return source;
+        }
+        IdentifierFilter filter = IdentifierFilter.of(config.getInclude(), config.getExclude());
+        // Projections already applied during extraction are the same for this profile
+        boolean project = profile.getRegistries() == null || profile.getRegistries().getProjection() == null;
+
+        List<RegistryInfo> narrowed = new ArrayList<>();
+        for (RegistryInfo registry : source) {
+            if (!filter.matches(registry.getRegistryIdentifier())) {
+                continue;
+            }
+            List<RegistryEntryInfo> entries = registry.getEntries();
+            if (config.getSampleLimit() > 0 && entries.size() > config.getSampleLimit()) {
+                entries = entries.subList(0, config.getSampleLimit());
+            }
+
+            FieldProjection projection = project
+                ? FieldProjection.forRegistry(config.getProjection(), registry.getRegistryIdentifier()) : null;
+            if (projection != null) {
+                List<RegistryEntryInfo> projected = new ArrayList<>(entries.size());
+                for (RegistryEntryInfo entry : entries) {
+                    projected.add(entry instanceof NbtRegistryEntryData nbtEntry ? nbtEntry.project(projection) : entry);
+                }
+                entries = projected;
+            }
+
+            if (entries == registry.getEntries()) {
+                narrowed.add(registry);
+            } else {
+                narrowed.add(new RegistryData(registry.getRegistryIdentifier(), entries));
+            }
+        }
+        return narrowed;
+    }
+
+    private static boolean sameSelection(
+            List<String> include, List<String> exclude, int sampleLimit,
+            List<String> otherInclude, List<String> otherExclude, int otherSampleLimit
+    ) {
+        return Objects.equals(orEmpty(include), orEmpty(otherInclude)) && Objects.equals(orEmpty(exclude), orEmpty(otherExclude))
+            && Math.max(sampleLimit, 0) == Math.max(otherSampleLimit, 0);
+    }
+
+    private static List<String> orEmpty(List<String> list) {
+        return list != null ? list : List.of();
+    }
+
+    @FunctionalInterface
+    interface Source<T> {
+        T get() throws IOException;
+    }
+
+}
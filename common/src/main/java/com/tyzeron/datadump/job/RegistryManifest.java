@@ -0,0 +1,153 @@
+package com.tyzeron.datadump.job;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tyzeron.datadump.RegistryDataDump;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.builder.HashingDataBuilder;
+import com.tyzeron.datadump.config.ProfileConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+
+/**
+ * Content hashes of the registries written to a registry output, kept in a sidecar file next to it.
+ * <p>
+ * Each registry is hashed the way it is written, so a hash only changes when the registry's output would.
+ * Incremental runs compare the hashes with the manifest of the previous run and leave outputs whose
+ * registries did not change alone. The output settings are stored as well, changing them makes every
+ * registry count as changed.
+ */
+public class RegistryManifest {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private final String settings;
+    private final Map<String, String> hashes;
+
+    public RegistryManifest(String settings, Map<String, String> hashes) {
+        this.settings = settings;
+        this.hashes = Collections.unmodifiableMap(new TreeMap<>(hashes));
+    }
+
+    /**
+     * Hashes every registry as the profile would write it, keyed by registry id
+     */
+    public static Map<String, String> hashRegistries(Collection<RegistryInfo> registries, ProfileConfig profile) {
+        HashingDataBuilder builder = new HashingDataBuilder();
+        Map<String, String> hashes = new TreeMap<>();
+        for (RegistryInfo registry : registries) {
+            RegistryDataDump.buildRegistryData(List.of(registry), profile, builder, builder.createObject());
+            hashes.put(registry.getRegistryIdentifier(), builder.digest());
+        }
+        return hashes;
+    }
+
+    /**
+     * Describes the output settings of a single-file profile that change the written bytes besides the registries
+     */
+    public static String settingsOf(ProfileConfig profile) {
+        ProfileConfig.ExportConfig export = profile.getExport();
+        String format = export.getFormat().toLowerCase();
+        if ("json".equals(format)) {
+            return format + ",pretty=" + (export.getJson() != null && export.getJson().isPretty());
+        } else if ("nbt".equals(format)) {
+            return format + ",compressed=" + (export.getNbt() != null && export.getNbt().isCompressed());
+        }
+        return format;
+    }
+
+    /**
+     * Gets the sidecar manifest file of an output file
+     */
+    public static File sidecarOf(File output) {
+        return new File(output.getParentFile(), output.getName() + ".manifest.json");
+    }
+
+    /**
+     * Reads a manifest, returning null if there is none or it can not be read
+     */
+    public static RegistryManifest read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+            Map<String, String> hashes = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("registries").entrySet()) {
+                hashes.put(entry.getKey(), entry.getValue().getAsString());
+            }
+            return new RegistryManifest(root.get("settings").getAsString(), hashes);
+        } catch (IOException | RuntimeException e) {
+            // A broken manifest only means the next run writes everything again
+            return null;
+        }
+    }
+
+    public void writeTo(File file) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("settings", settings);
+        JsonObject registries = new JsonObject();
+        hashes.forEach(registries::addProperty);
+        root.add("registries", registries);
+
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            GSON.toJson(root, writer);
+        }
+    }
+
+    /**
+     * Gets the ids of the registries that are new or whose hash differs from the previous manifest,
+     * every registry when there is no previous manifest or its settings differ
+     */
+    public Set<String> changedSince(RegistryManifest previous) {
+        if (previous == null || !settings.equals(previous.settings)) {
+            return new TreeSet<>(hashes.keySet());
+        }
+        Set<String> changed = new TreeSet<>();
+        hashes.forEach((id, hash) -> {
+            if (!hash.equals(previous.hashes.get(id))) {
+                changed.add(id);
+            }
+        });
+        return changed;
+    }
+
+    /**
+     * Gets the ids of the registries in the previous manifest that are no longer written
+     */
+    public Set<String> removedSince(RegistryManifest previous) {
+        Set<String> removed = new TreeSet<>();
+        if (previous != null) {
+            for (String id : previous.hashes.keySet()) {
+                if (!hashes.containsKey(id)) {
+                    removed.add(id);
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Whether an output written with this manifest would be the same as the one written with the previous one
+     */
+    public boolean isUnchangedSince(RegistryManifest previous) {
+        return previous != null && settings.equals(previous.settings) && hashes.equals(previous.hashes);
+    }
+
+}
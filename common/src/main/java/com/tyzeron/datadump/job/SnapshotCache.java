@@ -0,0 +1,136 @@
+package com.tyzeron.datadump.job;
+
+import com.tyzeron.datadump.BlockDataDump;
+import com.tyzeron.datadump.DataDump;
+import com.tyzeron.datadump.RegistryDataDump;
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.config.ProfileConfig;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Keeps extracted provider data between dump runs.
+ * <p>
+ * Results are keyed by the options that change what a provider returns, so profiles that extract the same
+ * data share an entry. Blocks never change after bootstrap and stay cached for the lifetime of the game,
+ * registries are dropped whenever they may have changed: on datapack reload and when the server stops.
+ * A caller asking for data that is being extracted waits for that extraction instead of starting another.
+ * <p>
+ * Directly encoded elements are encoded again whenever they are written, callers should turn direct
+ * encoding off for cached runs so the cache holds the encoded elements.
+ */
+public class SnapshotCache {
+
+    private final Map<BlockKey, CompletableFuture<Collection<BlockInfo>>> blocks = new ConcurrentHashMap<>();
+    private final Map<RegistryKey, CompletableFuture<Collection<RegistryInfo>>> registries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a snapshot for a run that takes its data from this cache, extracting whatever is missing
+     */
+    public DumpSnapshot snapshot(ProfileConfig profile, DumpMetrics metrics) {
+        return new DumpSnapshot(profile, metrics, () -> getBlocks(profile), () -> getRegistries(profile));
+    }
+
+    /**
+     * Gets the blocks extracted with the profile's options, extracting them if they are not cached yet
+     */
+    public Collection<BlockInfo> getBlocks(ProfileConfig profile) throws IOException {
+        return get(blocks, BlockKey.of(profile.getBlocks()), () -> BlockDataDump.collectBlocks(profile));
+    }
+
+    /**
+     * Gets the registries extracted with the profile's options, extracting them if they are not cached yet
+     */
+    public Collection<RegistryInfo> getRegistries(ProfileConfig profile) throws IOException {
+        return get(registries, RegistryKey.of(profile.getRegistries()), () -> RegistryDataDump.collectRegistries(profile));
+    }
+
+    /**
+     * Drops all cached registries, extractions still running are not kept either
+     */
+    public void invalidateRegistries() {
+        if (!registries.isEmpty()) {
+            DataDump.LOGGER.info("Registries changed, dropping {} cached registry snapshot(s)", registries.size());
+        }
+        registries.clear();
+    }
+
+    private static <K, T> Collection<T> get(
+            Map<K, CompletableFuture<Collection<T>>> cache, K key, DumpSnapshot.Source<Collection<T>> extraction
+    ) throws IOException {
+        CompletableFuture<Collection<T>> created = new CompletableFuture<>();
+        CompletableFuture<Collection<T>> existing = cache.putIfAbsent(key, created);
+        if (existing != null) {
+            try {
+                return existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for cached data", e);
+            } catch (ExecutionException | CancellationException e) {
+                // The extraction this call waited for failed, the next call starts a new one
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException("Extraction failed: " + cause.getMessage(), cause);
+            }
+        }
+
+        try {
+            Collection<T> result = Collections.unmodifiableList(new ArrayList<>(extraction.get()));
+            created.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            cache.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Block options that change what the provider returns
+     */
+    private record BlockKey(List<String> include, List<String> exclude, int sampleLimit) {
+
+        static BlockKey of(ProfileConfig.BlocksConfig config) {
+            if (config == null) {
+                return new BlockKey(List.of(), List.of(), 0);
+            }
+            return new BlockKey(orEmpty(config.getInclude()), orEmpty(config.getExclude()), Math.max(config.getSampleLimit(), 0));
+        }
+    }
+
+    /**
+     * Registry options that change what the provider returns
+     */
+    private record RegistryKey(
+            boolean codec, boolean directEncode, List<String> include, List<String> exclude, int sampleLimit,
+            Map<String, List<String>> projection
+    ) {
+
+        static RegistryKey of(ProfileConfig.RegistriesConfig config) {
+            if (config == null) {
+                return new RegistryKey(false, false, List.of(), List.of(), 0, Map.of());
+            }
+            return new RegistryKey(config.isCodec(), config.isCodec() && config.isDirectEncode(), orEmpty(config.getInclude()),
+                orEmpty(config.getExclude()), Math.max(config.getSampleLimit(), 0),
+                config.getProjection() != null ? config.getProjection() : Map.of());
+        }
+    }
+
+    private static List<String> orEmpty(List<String> list) {
+        return list != null ? list : List.of();
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.tyzeron.datadump.job;
+
+import com.tyzeron.datadump.util.WorkExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+
+/**
+ * Runs units of work on the server thread, a limited number of milliseconds per tick.
+ * A dump job queues its units and waits for them, while the mod loader calls {@link #tick()} at the
+ * end of every server tick to work through the queue. At least one unit runs per tick so a dump always
+ * makes progress, even if a single unit takes longer than the budget. Waiting jobs still stop when they are
+ * cancelled, and {@link #cancelPending()} fails every queued unit once no more ticks will come.
+ */
+public class TickWorkExecutor {
+
+    private static final TickWorkExecutor INSTANCE = new TickWorkExecutor();
+    // How often a waiting job checks whether it was cancelled
+    private static final long WAIT_POLL_MILLIS = 200;
+
+    private final Queue<Unit> units = new ConcurrentLinkedQueue<>();
+    private volatile Thread tickThread;
+
+    public static TickWorkExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a WorkExecutor that queues its units here, using the given budget per tick
+     */
+    public WorkExecutor withBudget(long budgetMillis) {
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, budgetMillis));
+        return new WorkExecutor() {
+            @Override
+            public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function) {
+                return TickWorkExecutor.this.map(items, function, budgetNanos);
+            }
+
+            @Override
+            public boolean runsOnServerThread() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Runs queued units until the budget of the unit at the head of the queue is used up.
+     * Must be called from the server thread once per tick.
+     */
+    public void tick() {
+        tickThread = Thread.currentThread();
+
+        Unit unit = units.peek();
+        if (unit == null) {
+            return;
+        }
+        long deadline = System.nanoTime() + unit.budgetNanos;
+        do {
+            units.poll().task.run();
+        } while (units.peek() != null && System.nanoTime() - deadline < 0);
+    }
+
+    /**
+     * Fails every queued unit, for when the server stops and will not tick again. Jobs waiting for
+     * their units end with a {@link CancellationException}.
+     */
+    public void cancelPending() {
+        tickThread = null;
+        Unit unit;
+        while ((unit = units.poll()) != null) {
+            unit.batch.completeExceptionally(new CancellationException("Server stopped before the dump finished"));
+        }
+    }
+
+    private <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function, long budgetNanos) {
+        // Waiting for the next tick on the server thread itself would never finish
+        if (items.isEmpty() || Thread.currentThread() == tickThread) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(function.apply(item));
+            }
+            return results;
+        }
+
+        Object[] results = new Object[items.size()];
+        AtomicInteger remaining = new AtomicInteger(items.size());
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            units.add(new Unit(() -> {
+                // Skip the rest of the batch once a unit has failed
+                if (done.isDone()) {
+                    return;
+                }
+                try {
+                    results[index] = function.apply(items.get(index));
+                } catch (Throwable t) {
+                    done.completeExceptionally(t);
+                    return;
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    done.complete(null);
+                }
+            }, done, budgetNanos));
+        }
+
+        try {
+            while (true) {
+                try {
+                    DumpProgress.current().checkpoint();
+                } catch (CancellationException e) {
+                    // Queued units of the batch are skipped once it is done
+                    done.cancel(false);
+                    throw e;
+                }
+                try {
+                    done.get(WAIT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    // Not done yet, check for cancellation again
+                }
+            }
+        } catch (InterruptedException e) {
+            done.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for server ticks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Tick work unit failed", e.getCause());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> resultList = (List<R>) Arrays.asList(results);
+        return resultList;
+    }
+
+    private record Unit(Runnable task, CompletableFuture<Void> batch, long budgetNanos) {
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.tyzeron.datadump.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.tyzeron.datadump.builder.StreamingNbtDataBuilder.*;
+
+
+/**
+ * Keeps only selected fields of encoded registry elements.
+ * <p>
+ * Fields are selected by dotted paths such as "effects.sky_color". Selecting a field keeps its whole
+ * subtree, selecting a nested field keeps only that field of its parents. Paths go through lists of
+ * compounds by applying to every element. Projection works on binary NBT compound payloads, so pruned
+ * subtrees are skipped before anything is built from them.
+ */
+public final class FieldProjection {
+
+    private final Node root;
+
+    private FieldProjection(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Creates the projection for a registry from the per-registry path lists of a profile, keyed by
+     * registry id or glob as accepted by {@link IdentifierFilter}. Returns null if no paths apply.
+     */
+    public static FieldProjection forRegistry(Map<String, List<String>> projections, String registryId) {
+        if (projections == null || projections.isEmpty()) {
+            return null;
+        }
+
+        Set<String> paths = new LinkedHashSet<>();
+        for (Map.Entry<String, List<String>> entry : projections.entrySet()) {
+            // toml4j keeps the quotes around quoted keys, which ids with a colon or slash need
+            String pattern = entry.getKey();
+            if (pattern.length() >= 2 && pattern.startsWith("\"") && pattern.endsWith("\"")) {
+                pattern = pattern.substring(1, pattern.length() - 1);
+            }
+            if (entry.getValue() != null && IdentifierFilter.of(List.of(pattern), null).matches(registryId)) {
+                paths.addAll(entry.getValue());
+            }
+        }
+        if (paths.isEmpty()) {
+            return null;
+        }
+
+        Node root = new Node();
+        for (String path : paths) {
+            Node node = root;
+            for (String key : path.trim().split("\\.")) {
+                node = node.children.computeIfAbsent(key, k -> new Node());
+            }
+            node.whole = true;
+        }
+        return new FieldProjection(root);
+    }
+
+    /**
+     * Returns the payload of a compound holding only the selected fields of the given compound payload
+     */
+    public byte[] apply(byte[] payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.min(payload.length, 1024));
+        try {
+            copyCompound(new DataInputStream(new ByteArrayInputStream(payload)), new DataOutputStream(bytes), root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed NBT payload", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void copyCompound(DataInput in, DataOutput out, Node node) throws IOException {
+        byte type;
+        while ((type = in.readByte()) != TAG_END) {
+            String key = in.readUTF();
+            Node child = node.children.get(key);
+            if (child == null || (!child.whole && type != TAG_COMPOUND && type != TAG_LIST)) {
+                // Not selected, or a path continues into a value without fields
+                transfer(in, null, type);
+                continue;
+            }
+            out.writeByte(type);
+            out.writeUTF(key);
+            copyValue(in, out, type, child);
+        }
+        out.writeByte(TAG_END);
+    }
+
+    private static void copyValue(DataInput in, DataOutput out, byte type, Node node) throws IOException {
+        if (node.whole) {
+            transfer(in, out, type);
+        } else if (type == TAG_COMPOUND) {
+            copyCompound(in, out, node);
+        } else {
+            byte elementType = in.readByte();
+            int length = in.readInt();
+            if (elementType == TAG_COMPOUND || elementType == TAG_LIST) {
+                out.writeByte(elementType);
+                out.writeInt(length);
+                for (int i = 0; i < length; i++) {
+                    copyValue(in, out, elementType, node);
+                }
+            } else {
+                // None of the selected fields exist in a list of plain values
+                for (int i = 0; i < length; i++) {
+                    transfer(in, null, elementType);
+                }
+                out.writeByte(elementType);
+                out.writeInt(0);
+            }
+        }
+    }
+
+    /**
+     * Copies a value of the given type as it is, or skips it when out is null
+     */
+    private static void transfer(DataInput in, DataOutput out, byte type) throws IOException {
+        switch (type) {
+            case TAG_BYTE -> copyBytes(in, out, 1);
+            case TAG_SHORT -> copyBytes(in, out, 2);
+            case TAG_INT, TAG_FLOAT -> copyBytes(in, out, 4);
+            case TAG_LONG, TAG_DOUBLE -> copyBytes(in, out, 8);
+            case TAG_STRING -> {
+                int length = in.readUnsignedShort();
+                if (out != null) {
+                    out.writeShort(length);
+                }
+                copyBytes(in, out, length);
+            }
+            case TAG_BYTE_ARRAY, TAG_INT_ARRAY, TAG_LONG_ARRAY -> {
+                int length = in.readInt();
+                if (out != null) {
+                    out.writeInt(length);
+                }
+                int elementSize = type == TAG_BYTE_ARRAY ? 1 : type == TAG_INT_ARRAY ? 4 : 8;
+                copyBytes(in, out, length * elementSize);
+            }
+            case TAG_LIST -> {
+                byte elementType = in.readByte();
+                int length = in.readInt();
+                if (out != null) {
+                    out.writeByte(elementType);
+                    out.writeInt(length);
+                }
+                for (int i = 0; i < length; i++) {
+                    transfer(in, out, elementType);
+                }
+            }
+            case TAG_COMPOUND -> {
+                byte entryType;
+                while ((entryType = in.readByte()) != TAG_END) {
+                    if (out != null) {
+                        out.writeByte(entryType);
+                    }
+                    transfer(in, out, TAG_STRING);
+                    transfer(in, out, entryType);
+                }
+                if (out != null) {
+                    out.writeByte(TAG_END);
+                }
+            }
+            default -> throw new IOException("Unknown tag type: " + type);
+        }
+    }
+
+    private static void copyBytes(DataInput in, DataOutput out, int count) throws IOException {
+        if (out == null) {
+            in.skipBytes(count);
+            return;
+        }
+        byte[] buffer = new byte[count];
+        in.readFully(buffer);
+        out.write(buffer);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private boolean whole;
+    }
+
+}
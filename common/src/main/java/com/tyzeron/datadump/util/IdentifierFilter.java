@@ -0,0 +1,92 @@
+package com.tyzeron.datadump.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+
+/**
+ * Include and exclude lists for namespaced identifiers such as "minecraft:worldgen/biome".
+ * <p>
+ * "*" matches any run of characters, including "/", so a whole namespace is written as "create:*".
+ * A pattern without a colon matches the path in any namespace, "worldgen/*" is the same as "*:worldgen/*".
+ * An empty include list includes everything, and an identifier matching any exclude pattern is left out
+ * even if it is included.
+ */
+public final class IdentifierFilter {
+
+    public static final IdentifierFilter ALL = new IdentifierFilter(List.of(), List.of());
+
+    private final List<Pattern> includes;
+    private final List<Pattern> excludes;
+
+    private IdentifierFilter(List<Pattern> includes, List<Pattern> excludes) {
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    /**
+     * Creates a filter from the given patterns, either list may be null
+     */
+    public static IdentifierFilter of(List<String> include, List<String> exclude) {
+        List<Pattern> includes = compile(include);
+        List<Pattern> excludes = compile(exclude);
+        return includes.isEmpty() && excludes.isEmpty() ? ALL : new IdentifierFilter(includes, excludes);
+    }
+
+    public boolean matches(String identifier) {
+        if (!includes.isEmpty() && !anyMatches(includes, identifier)) {
+            return false;
+        }
+        return !anyMatches(excludes, identifier);
+    }
+
+    /**
+     * Whether every identifier passes, so callers can skip filtering
+     */
+    public boolean isAll() {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    private static boolean anyMatches(List<Pattern> patterns, String identifier) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(identifier).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Pattern> compile(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<>();
+        if (globs == null) {
+            return patterns;
+        }
+        for (String glob : globs) {
+            String trimmed = glob.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.indexOf(':') < 0) {
+                trimmed = "*:" + trimmed;
+            }
+
+            StringBuilder regex = new StringBuilder();
+            int start = 0;
+            int wildcard;
+            while ((wildcard = trimmed.indexOf('*', start)) >= 0) {
+                if (wildcard > start) {
+                    regex.append(Pattern.quote(trimmed.substring(start, wildcard)));
+                }
+                regex.append(".*");
+                start = wildcard + 1;
+            }
+            if (start < trimmed.length()) {
+                regex.append(Pattern.quote(trimmed.substring(start)));
+            }
+            patterns.add(Pattern.compile(regex.toString()));
+        }
+        return patterns;
+    }
+
+}
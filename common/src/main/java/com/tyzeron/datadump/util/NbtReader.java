@@ -0,0 +1,173 @@
+package com.tyzeron.datadump.util;
+
+import com.tyzeron.datadump.builder.DataStructureBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tyzeron.datadump.builder.StreamingNbtDataBuilder.*;
+
+
+/**
+ * Reads binary NBT compound payloads, as written by Minecraft's CompoundTag.write, either into Maps or
+ * straight into a DataStructureBuilder. Values keep their tag types and compound entries keep their order,
+ * so the result is the same as converting the original tag.
+ */
+public final class NbtReader {
+
+    private NbtReader() {
+    }
+
+    /**
+     * Reads a compound payload into a Map of boxed primitives, arrays, Lists and nested Maps
+     */
+    public static Map<String, Object> readCompound(byte[] payload) {
+        try {
+            return readCompound(input(payload));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed NBT payload", e);
+        }
+    }
+
+    /**
+     * Adds the entries of a compound payload to an existing object. Every container is attached
+     * to its parent before it is filled, so streaming builders can write it out directly.
+     */
+    public static void replayCompound(byte[] payload, DataStructureBuilder builder, Object target) {
+        try {
+            fillObject(input(payload), builder, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed NBT payload", e);
+        }
+    }
+
+    private static DataInput input(byte[] payload) {
+        return new DataInputStream(new ByteArrayInputStream(payload));
+    }
+
+    private static Map<String, Object> readCompound(DataInput in) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        byte type;
+        while ((type = in.readByte()) != TAG_END) {
+            String key = in.readUTF();
+            map.put(key, readValue(in, type));
+        }
+        return map;
+    }
+
+    private static Object readValue(DataInput in, byte type) throws IOException {
+        return switch (type) {
+            case TAG_BYTE -> in.readByte();
+            case TAG_SHORT -> in.readShort();
+            case TAG_INT -> in.readInt();
+            case TAG_LONG -> in.readLong();
+            case TAG_FLOAT -> in.readFloat();
+            case TAG_DOUBLE -> in.readDouble();
+            case TAG_STRING -> in.readUTF();
+            case TAG_BYTE_ARRAY -> readByteArray(in);
+            case TAG_INT_ARRAY -> readIntArray(in);
+            case TAG_LONG_ARRAY -> readLongArray(in);
+            case TAG_LIST -> {
+                byte elementType = in.readByte();
+                int length = in.readInt();
+                List<Object> list = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    list.add(readValue(in, elementType));
+                }
+                yield list;
+            }
+            case TAG_COMPOUND -> readCompound(in);
+            default -> throw new IOException("Unknown tag type: " + type);
+        };
+    }
+
+    private static void fillObject(DataInput in, DataStructureBuilder builder, Object target) throws IOException {
+        byte type;
+        while ((type = in.readByte()) != TAG_END) {
+            String key = in.readUTF();
+            switch (type) {
+                case TAG_BYTE -> builder.addByteProperty(target, key, in.readByte());
+                case TAG_SHORT -> builder.addShortProperty(target, key, in.readShort());
+                case TAG_INT -> builder.addIntProperty(target, key, in.readInt());
+                case TAG_LONG -> builder.addLongProperty(target, key, in.readLong());
+                case TAG_FLOAT -> builder.addFloatProperty(target, key, in.readFloat());
+                case TAG_DOUBLE -> builder.addDoubleProperty(target, key, in.readDouble());
+                case TAG_STRING -> builder.addStringProperty(target, key, in.readUTF());
+                case TAG_BYTE_ARRAY -> builder.addByteArrayProperty(target, key, readByteArray(in));
+                case TAG_INT_ARRAY -> builder.addIntArrayProperty(target, key, readIntArray(in));
+                case TAG_LONG_ARRAY -> builder.addLongArrayProperty(target, key, readLongArray(in));
+                case TAG_LIST -> {
+                    Object array = builder.createArray();
+                    builder.addToObject(target, key, array);
+                    fillArray(in, builder, array);
+                }
+                case TAG_COMPOUND -> {
+                    Object object = builder.createObject();
+                    builder.addToObject(target, key, object);
+                    fillObject(in, builder, object);
+                }
+                default -> throw new IOException("Unknown tag type: " + type);
+            }
+        }
+    }
+
+    private static void fillArray(DataInput in, DataStructureBuilder builder, Object array) throws IOException {
+        byte elementType = in.readByte();
+        int length = in.readInt();
+        for (int i = 0; i < length; i++) {
+            switch (elementType) {
+                case TAG_BYTE -> builder.addByteToArray(array, in.readByte());
+                case TAG_SHORT -> builder.addShortToArray(array, in.readShort());
+                case TAG_INT -> builder.addIntToArray(array, in.readInt());
+                case TAG_LONG -> builder.addLongToArray(array, in.readLong());
+                case TAG_FLOAT -> builder.addFloatToArray(array, in.readFloat());
+                case TAG_DOUBLE -> builder.addDoubleToArray(array, in.readDouble());
+                case TAG_STRING -> builder.addStringToArray(array, in.readUTF());
+                case TAG_BYTE_ARRAY -> builder.addByteArrayToArray(array, readByteArray(in));
+                case TAG_INT_ARRAY -> builder.addIntArrayToArray(array, readIntArray(in));
+                case TAG_LONG_ARRAY -> builder.addLongArrayToArray(array, readLongArray(in));
+                case TAG_LIST -> {
+                    Object nestedArray = builder.createArray();
+                    builder.addToArray(array, nestedArray);
+                    fillArray(in, builder, nestedArray);
+                }
+                case TAG_COMPOUND -> {
+                    Object object = builder.createObject();
+                    builder.addToArray(array, object);
+                    fillObject(in, builder, object);
+                }
+                default -> throw new IOException("Unknown tag type: " + elementType);
+            }
+        }
+    }
+
+    private static byte[] readByteArray(DataInput in) throws IOException {
+        byte[] array = new byte[in.readInt()];
+        in.readFully(array);
+        return array;
+    }
+
+    private static int[] readIntArray(DataInput in) throws IOException {
+        int[] array = new int[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = in.readInt();
+        }
+        return array;
+    }
+
+    private static long[] readLongArray(DataInput in) throws IOException {
+        long[] array = new long[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = in.readLong();
+        }
+        return array;
+    }
+
+}
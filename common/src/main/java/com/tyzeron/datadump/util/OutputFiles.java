@@ -0,0 +1,54 @@
+package com.tyzeron.datadump.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+
+/**
+ * Writes output files through a temporary file next to them, which only replaces the output once it is complete.
+ * A dump that fails or is cancelled halfway leaves the previous output in place instead of a truncated one.
+ */
+public final class OutputFiles {
+
+    private OutputFiles() {
+    }
+
+    /**
+     * Writes a file by passing a temporary file to the writer, and moves it into place once the writer returns
+     */
+    public static void write(File target, Writer writer) throws IOException {
+        File temp = tempOf(target);
+        try {
+            writer.write(temp);
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * Gets the temporary file an output is written to before it is moved into place
+     */
+    public static File tempOf(File target) {
+        return new File(target.getParentFile(), target.getName() + ".tmp");
+    }
+
+    /**
+     * Replaces the target with a fully written temporary file, atomically where the file system supports it
+     */
+    public static void moveIntoPlace(File temp, File target) throws IOException {
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public interface Writer {
+        void write(File file) throws IOException;
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.tyzeron.datadump.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+
+/**
+ * Maps a list of items on a dedicated fork-join pool while keeping the results in input order,
+ * so parallel extraction produces exactly the same output as the serial path.
+ */
+public final class ParallelMapper implements WorkExecutor {
+
+    // Number of chunks each worker gets on average, to even out uneven item costs
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final int parallelism;
+
+    public ParallelMapper(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function) {
+        return map(items, function, parallelism);
+    }
+
+    /**
+     * Applies the function to every item and returns the results in the same order.
+     * Runs on the calling thread when the parallelism is 1 or less.
+     */
+    public static <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function, int parallelism) {
+        if (parallelism <= 1 || items.size() < 2) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(function.apply(item));
+            }
+            return results;
+        }
+
+        Object[] results = new Object[items.size()];
+        int threshold = Math.max(1, items.size() / (parallelism * CHUNKS_PER_WORKER));
+        ForkJoinPool pool = createPool(parallelism);
+        try {
+            pool.invoke(new MapTask<>(items, function, results, 0, items.size(), threshold));
+        } finally {
+            pool.shutdown();
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> resultList = (List<R>) Arrays.asList(results);
+        return resultList;
+    }
+
+    private static ForkJoinPool createPool(int parallelism) {
+        // Workers inherit the caller's context class loader, mod loaders rely on it to resolve game classes
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("DataDump-Worker-" + thread.getPoolIndex());
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Splits the index range in halves until it is small enough to map directly
+     */
+    // Fork-join tasks are serializable, but these are never serialized
+    @SuppressWarnings("serial")
+    private static final class MapTask<T, R> extends RecursiveAction {
+
+        private final List<T> items;
+        private final Function<? super T, ? extends R> function;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private MapTask(List<T> items, Function<? super T, ? extends R> function, Object[] results,
+                        int from, int to, int threshold) {
+            this.items = items;
+            this.function = function;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    results[i] = function.apply(items.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new MapTask<>(items, function, results, from, middle, threshold),
+                new MapTask<>(items, function, results, middle, to, threshold)
+            );
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.tyzeron.datadump.util;
+
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.job.TickWorkExecutor;
+
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * Strategy used by data providers to convert independent units of work (blocks, registry entries).
+ * Implementations must return the results in input order.
+ */
+public interface WorkExecutor {
+
+    /**
+     * Applies the function to every item and returns the results in the same order
+     */
+    <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function);
+
+    /**
+     * Whether units run on the server thread, providers should then not defer work until the output is written
+     */
+    default boolean runsOnServerThread() {
+        return false;
+    }
+
+    /**
+     * Creates the executor selected by the profile's execution options: units are either
+     * spread across server ticks, or converted by up to the given number of worker threads
+     */
+    static WorkExecutor create(ProfileConfig profile, int parallelism) {
+        ProfileConfig.ExecutionConfig execution = profile.getExecution();
+        if (execution != null && "tick".equalsIgnoreCase(execution.getMode())) {
+            return TickWorkExecutor.getInstance().withBudget(execution.getTickBudgetMs());
+        }
+        return new ParallelMapper(parallelism);
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.tyzeron.datadump;
+
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.block.BlockStateInfo;
+import com.tyzeron.datadump.abstraction.block.PropertyInfo;
+import com.tyzeron.datadump.abstraction.registry.NbtRegistryEntryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryEntryData;
+import com.tyzeron.datadump.abstraction.registry.RegistryEntryInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.config.ProfileConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tyzeron.datadump.builder.StreamingNbtDataBuilder.*;
+
+
+/**
+ * Small block and registry data sets covering every value type the builders and writers handle
+ */
+public final class DumpTestData {
+
+    private DumpTestData() {
+    }
+
+    /**
+     * Blocks without properties, with one property and with two, given in unsorted order
+     */
+    public static List<BlockInfo> blocks() {
+        PropertyInfo facing = new PropertyInfo("facing", List.of("north", "east", "south", "west"));
+        PropertyInfo lit = new PropertyInfo("lit", List.of("true", "false"));
+
+        List<BlockInfo> blocks = new ArrayList<>();
+        blocks.add(block("test:furnace", 10, 3, List.of(facing, lit)));
+        blocks.add(block("test:air", 0, 0, List.of()));
+        blocks.add(block("test:torch", 2, 1, List.of(lit)));
+        return blocks;
+    }
+
+    private static BlockInfo block(String identifier, int firstStateId, int defaultIndex, List<PropertyInfo> properties) {
+        int stateCount = 1;
+        for (PropertyInfo property : properties) {
+            stateCount *= property.getPossibleValues().size();
+        }
+        List<BlockStateInfo> states = new ArrayList<>();
+        for (int s = 0; s < stateCount; s++) {
+            int[] valueOrdinals = new int[properties.size()];
+            int remainder = s;
+            for (int p = properties.size() - 1; p >= 0; p--) {
+                int valueCount = properties.get(p).getPossibleValues().size();
+                valueOrdinals[p] = remainder % valueCount;
+                remainder /= valueCount;
+            }
+            states.add(new BlockStateInfo(firstStateId + s, properties, valueOrdinals, s == defaultIndex));
+        }
+        return new BlockInfo(identifier, properties, states);
+    }
+
+    /**
+     * One registry with Map elements, one with NBT payload elements and entries without an element
+     */
+    public static List<RegistryInfo> registries() {
+        Map<String, Object> child = new LinkedHashMap<>();
+        child.put("name", "child");
+        child.put("ids", new int[] {1, -2, 3});
+
+        Map<String, Object> element = new LinkedHashMap<>();
+        element.put("string", "value \"quoted\" <html>");
+        element.put("byte", (byte) -3);
+        element.put("short", (short) 300);
+        element.put("int", -70000);
+        element.put("long", Long.MIN_VALUE);
+        element.put("float", 0.1f);
+        element.put("double", 1.0E-7);
+        element.put("boolean", true);
+        element.put("bytes", new byte[] {1, 2, 3});
+        element.put("longs", new long[] {Long.MAX_VALUE, 0});
+        element.put("list", List.of("a", "b"));
+        element.put("child", child);
+
+        List<RegistryEntryInfo> mapEntries = new ArrayList<>();
+        mapEntries.add(new RegistryEntryData("test:full", 0, element));
+        mapEntries.add(new RegistryEntryData("test:empty", 1, null));
+
+        List<RegistryEntryInfo> payloadEntries = new ArrayList<>();
+        payloadEntries.add(new NbtRegistryEntryData("test:payload", 5, payload()));
+        payloadEntries.add(new NbtRegistryEntryData("test:missing", -1, null));
+
+        return List.of(new RegistryData("test:maps", mapEntries), new RegistryData("test:payloads", payloadEntries));
+    }
+
+    /**
+     * Compound payload laid out the way CompoundTag.write does, with a nested compound and list
+     */
+    public static byte[] payload() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(TAG_STRING);
+            out.writeUTF("name");
+            out.writeUTF("payload");
+            out.writeByte(TAG_DOUBLE);
+            out.writeUTF("scale");
+            out.writeDouble(0.25);
+            out.writeByte(TAG_LIST);
+            out.writeUTF("weights");
+            out.writeByte(TAG_FLOAT);
+            out.writeInt(2);
+            out.writeFloat(0.5f);
+            out.writeFloat(1.5f);
+            out.writeByte(TAG_COMPOUND);
+            out.writeUTF("child");
+            out.writeByte(TAG_INT_ARRAY);
+            out.writeUTF("ids");
+            out.writeInt(2);
+            out.writeInt(7);
+            out.writeInt(-8);
+            out.writeByte(TAG_END);
+            out.writeByte(TAG_END);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Profile with every block and registry option enabled
+     */
+    public static ProfileConfig fullProfile() {
+        ProfileConfig profile = new ProfileConfig();
+
+        ProfileConfig.BlocksConfig blocks = new ProfileConfig.BlocksConfig();
+        blocks.setProperties(true);
+        blocks.setStates(true);
+        profile.setBlocks(blocks);
+
+        ProfileConfig.RegistriesConfig registries = new ProfileConfig.RegistriesConfig();
+        registries.setCodec(true);
+        profile.setRegistries(registries);
+
+        return profile;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.tyzeron.datadump.binary;
+
+import com.tyzeron.datadump.DumpTestData;
+import com.tyzeron.datadump.abstraction.block.BlockInfo;
+import com.tyzeron.datadump.abstraction.block.BlockStateInfo;
+import com.tyzeron.datadump.abstraction.block.PropertyInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryEntryInfo;
+import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.util.NbtReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BinaryDumpRoundTripTest {
+
+    @Test
+    void blocksReadBackAsWritten() throws IOException {
+        ProfileConfig profile = DumpTestData.fullProfile();
+        List<BlockInfo> blocks = new ArrayList<>(DumpTestData.blocks());
+
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+        writer.addBlocks(blocks, profile);
+        List<BlockInfo> read = readBack(writer).readBlocks();
+
+        // The writer sorts blocks by identifier
+        blocks.sort(Comparator.comparing(BlockInfo::getIdentifier));
+        assertEquals(blocks.size(), read.size());
+        for (int b = 0; b < blocks.size(); b++) {
+            BlockInfo expected = blocks.get(b);
+            BlockInfo actual = read.get(b);
+            assertEquals(expected.getIdentifier(), actual.getIdentifier());
+
+            assertEquals(expected.getProperties().size(), actual.getProperties().size());
+            for (int p = 0; p < expected.getProperties().size(); p++) {
+                PropertyInfo expectedProperty = expected.getProperties().get(p);
+                PropertyInfo actualProperty = actual.getProperties().get(p);
+                assertEquals(expectedProperty.getName(), actualProperty.getName());
+                assertEquals(expectedProperty.getPossibleValues(), actualProperty.getPossibleValues());
+            }
+
+            assertEquals(expected.getStates().size(), actual.getStates().size());
+            for (int s = 0; s < expected.getStates().size(); s++) {
+                BlockStateInfo expectedState = expected.getStates().get(s);
+                BlockStateInfo actualState = actual.getStates().get(s);
+                assertEquals(expectedState.getStateId(), actualState.getStateId());
+                assertEquals(expectedState.isDefault(), actualState.isDefault());
+                assertEquals(expectedState.getProperties(), actualState.getProperties());
+            }
+        }
+    }
+
+    @Test
+    void registriesReadBackAsWritten() throws IOException {
+        List<RegistryInfo> registries = DumpTestData.registries();
+
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+        writer.addRegistries(registries, DumpTestData.fullProfile());
+        List<RegistryInfo> read = readBack(writer).readRegistries();
+
+        assertEquals(registries.size(), read.size());
+        for (int r = 0; r < registries.size(); r++) {
+            RegistryInfo expected = registries.get(r);
+            RegistryInfo actual = read.get(r);
+            assertEquals(expected.getRegistryIdentifier(), actual.getRegistryIdentifier());
+
+            assertEquals(expected.getEntries().size(), actual.getEntries().size());
+            for (int e = 0; e < expected.getEntries().size(); e++) {
+                RegistryEntryInfo expectedEntry = expected.getEntries().get(e);
+                RegistryEntryInfo actualEntry = actual.getEntries().get(e);
+                assertEquals(expectedEntry.getIdentifier(), actualEntry.getIdentifier());
+                assertEquals(expectedEntry.getRawId(), actualEntry.getRawId());
+                assertEquals(comparable(expectedEntry.hasEncodedData() ? expectedEntry.getEncodedData() : null),
+                    comparable(actualEntry.getEncodedData()));
+            }
+        }
+    }
+
+    @Test
+    void payloadElementsMatchTheirMaps() throws IOException {
+        byte[] payload = DumpTestData.payload();
+
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+        writer.addRegistries(DumpTestData.registries(), DumpTestData.fullProfile());
+        RegistryEntryInfo entry = readBack(writer).readRegistries().get(1).getEntries().get(0);
+
+        // Payloads are encoded from the NBT bytes, the values keep their tag types
+        assertEquals(comparable(NbtReader.readCompound(payload)), comparable(entry.getEncodedData()));
+        assertInstanceOf(Float.class, ((List<?>) entry.getEncodedData().get("weights")).get(0));
+    }
+
+    @Test
+    void truncatedDumpIsRejected() throws IOException {
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+        writer.addRegistries(DumpTestData.registries(), DumpTestData.fullProfile());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() / 2);
+
+        assertThrows(IOException.class, () -> new BinaryDumpReader(ByteBuffer.wrap(truncated)).readRegistries());
+    }
+
+    private static BinaryDumpReader readBack(BinaryDumpWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return new BinaryDumpReader(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    /**
+     * Turns arrays into Lists so element values can be compared with equals
+     */
+    private static Object comparable(Object value) {
+        return switch (value) {
+            case Map<?, ?> map -> {
+                Map<Object, Object> copy = new LinkedHashMap<>();
+                map.forEach((key, item) -> copy.put(key, comparable(item)));
+                yield copy;
+            }
+            case List<?> list -> list.stream().map(BinaryDumpRoundTripTest::comparable).toList();
+            case byte[] array -> {
+                List<Byte> list = new ArrayList<>();
+                for (byte b : array) {
+                    list.add(b);
+                }
+                yield list;
+            }
+            case int[] array -> Arrays.stream(array).boxed().toList();
+            case long[] array -> Arrays.stream(array).boxed().toList();
+            case null, default -> value;
+        };
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.tyzeron.datadump.builder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.tyzeron.datadump.BlockDataDump;
+import com.tyzeron.datadump.DumpTestData;
+import com.tyzeron.datadump.RegistryDataDump;
+import com.tyzeron.datadump.config.ProfileConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * The streaming JSON output has to stay the same as serializing the JsonDataBuilder tree with Gson
+ */
+class StreamingJsonDataBuilderTest {
+
+    @Test
+    void blocksMatchTree() throws IOException {
+        ProfileConfig profile = DumpTestData.fullProfile();
+        assertSameJson(builder -> BlockDataDump.buildBlockData(DumpTestData.blocks(), profile, builder), false);
+        assertSameJson(builder -> BlockDataDump.buildBlockData(DumpTestData.blocks(), profile, builder), true);
+    }
+
+    @Test
+    void sharedPropertiesAndCompactStatesMatchTree() throws IOException {
+        ProfileConfig profile = DumpTestData.fullProfile();
+        profile.getBlocks().setSharedProperties(true);
+        profile.getBlocks().setStates("compact");
+        assertSameJson(builder -> BlockDataDump.buildBlockData(DumpTestData.blocks(), profile, builder), false);
+    }
+
+    @Test
+    void registriesMatchTree() throws IOException {
+        // Covers Map elements as well as payloads, which both builders replay from the NBT bytes
+        ProfileConfig profile = DumpTestData.fullProfile();
+        assertSameJson(builder -> RegistryDataDump.buildRegistryData(DumpTestData.registries(), profile, builder), false);
+        assertSameJson(builder -> RegistryDataDump.buildRegistryData(DumpTestData.registries(), profile, builder), true);
+    }
+
+    private static void assertSameJson(Build build, boolean pretty) throws IOException {
+        Gson gson = pretty ? new GsonBuilder().setPrettyPrinting().create() : new Gson();
+        String expected = gson.toJson((JsonElement) build.build(new JsonDataBuilder()));
+
+        StringWriter out = new StringWriter();
+        try (StreamingJsonDataBuilder builder = new StreamingJsonDataBuilder(out, pretty)) {
+            build.build(builder);
+        }
+        assertEquals(expected, out.toString());
+    }
+
+    @FunctionalInterface
+    private interface Build {
+        Object build(DataStructureBuilder builder);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.tyzeron.datadump.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class DumpSchedulerTest {
+
+    @Test
+    void intervalUnits() {
+        assertEquals(Duration.ofSeconds(90), DumpScheduler.parseInterval("90s"));
+        assertEquals(Duration.ofMinutes(30), DumpScheduler.parseInterval("30m"));
+        assertEquals(Duration.ofHours(6), DumpScheduler.parseInterval("6h"));
+        assertEquals(Duration.ofDays(1), DumpScheduler.parseInterval("1d"));
+    }
+
+    @Test
+    void intervalIgnoresCaseAndSurroundingSpace() {
+        assertEquals(Duration.ofHours(2), DumpScheduler.parseInterval(" 2H "));
+    }
+
+    @Test
+    void invalidIntervalsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DumpScheduler.parseInterval("h"));
+        assertThrows(IllegalArgumentException.class, () -> DumpScheduler.parseInterval("10"));
+        assertThrows(IllegalArgumentException.class, () -> DumpScheduler.parseInterval("10w"));
+        assertThrows(IllegalArgumentException.class, () -> DumpScheduler.parseInterval("ten m"));
+    }
+
+    @Test
+    void intervalsBelowAMinuteAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DumpScheduler.parseInterval("59s"));
+        assertThrows(IllegalArgumentException.class, () -> DumpScheduler.parseInterval("0m"));
+        assertThrows(IllegalArgumentException.class, () -> DumpScheduler.parseInterval("-5m"));
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.tyzeron.datadump.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CronExpressionTest {
+
+    // A Wednesday
+    private static final ZonedDateTime START = ZonedDateTime.of(2025, 1, 1, 12, 30, 45, 0, ZoneOffset.UTC);
+
+    @Test
+    void everyMinuteMatchesTheNextMinute() {
+        assertEquals(at(2025, 1, 1, 12, 31), CronExpression.parse("* * * * *").next(START));
+    }
+
+    @Test
+    void fixedTimeRollsOverToTheNextDay() {
+        assertEquals(at(2025, 1, 2, 3, 0), CronExpression.parse("0 3 * * *").next(START));
+    }
+
+    @Test
+    void stepsRangesAndLists() {
+        assertEquals(at(2025, 1, 1, 12, 45), CronExpression.parse("*/15 * * * *").next(START));
+        assertEquals(at(2025, 1, 1, 13, 0), CronExpression.parse("0-20/10 * * * *").next(START));
+        assertEquals(at(2025, 1, 1, 18, 5), CronExpression.parse("5 6,18 * * *").next(START));
+    }
+
+    @Test
+    void sundayIsZeroAndSeven() {
+        ZonedDateTime sunday = at(2025, 1, 5, 0, 0);
+        assertEquals(sunday, CronExpression.parse("0 0 * * 0").next(START));
+        assertEquals(sunday, CronExpression.parse("0 0 * * 7").next(START));
+    }
+
+    @Test
+    void restrictedDayFieldsMatchEither() {
+        // The 10th or any Friday, whichever comes first
+        assertEquals(at(2025, 1, 3, 0, 0), CronExpression.parse("0 0 10 * 5").next(START));
+        // Only the day of month is restricted, so the day of week does not widen the match
+        assertEquals(at(2025, 1, 10, 0, 0), CronExpression.parse("0 0 10 * *").next(START));
+    }
+
+    @Test
+    void monthsSkipAhead() {
+        assertEquals(at(2025, 6, 1, 0, 0), CronExpression.parse("0 0 1 6 *").next(START));
+        assertEquals(at(2028, 2, 29, 0, 0), CronExpression.parse("0 0 29 2 *").next(START));
+    }
+
+    @Test
+    void invalidExpressionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("0 3 * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("60 * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("* 24 * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("* * 0 * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("* * * 13 *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("*/0 * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("5-1 * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("a * * * *"));
+    }
+
+    @Test
+    void neverMatchingExpressionFails() {
+        CronExpression expression = CronExpression.parse("0 0 31 2 *");
+        assertThrows(IllegalStateException.class, () -> expression.next(START));
+    }
+
+    private static ZonedDateTime at(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC);
+    }
+
+}
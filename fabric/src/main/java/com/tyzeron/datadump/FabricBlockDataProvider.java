@@ -4,10 +4,12 @@ import com.tyzeron.datadump.abstraction.block.BlockDataProvider;
 import com.tyzeron.datadump.abstraction.block.BlockInfo;
 import com.tyzeron.datadump.abstraction.block.BlockStateInfo;
 import com.tyzeron.datadump.abstraction.block.PropertyInfo;
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.util.IdentifierFilter;
+import com.tyzeron.datadump.util.WorkExecutor;
 
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.StateDefinition;
@@ -15,7 +17,7 @@ import net.minecraft.world.level.block.state.properties.Property;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,37 +28,52 @@ import java.util.Map;
 public class FabricBlockDataProvider implements BlockDataProvider {
 
     @Override
-    public Collection<BlockInfo> getAllBlocks() {
-        List<BlockInfo> blockInfoList = new ArrayList<>();
-
-        // Iterate through all registered blocks in Fabric
-        for (Map.Entry<ResourceKey<Block>, Block> entry : BuiltInRegistries.BLOCK.entrySet()) {
-            ResourceLocation blockId = entry.getKey().location();
-            Block block = entry.getValue();
+    public Collection<BlockInfo> getAllBlocks(ProfileConfig.BlocksConfig config, WorkExecutor executor) {
+        // Snapshot the registered blocks in Fabric so their registry order is kept
+        List<Map.Entry<ResourceKey<Block>, Block>> entries = new ArrayList<>(BuiltInRegistries.BLOCK.entrySet());
+
+        // Leave out blocks the profile does not ask for before converting anything
+        if (config != null) {
+            IdentifierFilter filter = IdentifierFilter.of(config.getInclude(), config.getExclude());
+            if (!filter.isAll()) {
+                entries.removeIf(entry -> !filter.matches(entry.getKey().location().toString()));
+            }
+            if (config.getSampleLimit() > 0 && entries.size() > config.getSampleLimit()) {
+                entries = new ArrayList<>(entries.subList(0, config.getSampleLimit()));
+            }
+        }
 
-            // Convert block to BlockInfo
-            BlockInfo blockInfo = convertToBlockInfo(blockId.toString(), block);
-            blockInfoList.add(blockInfo);
+        // Blocks share Property instances, convert each one once so the blocks share its PropertyInfo as well
+        Map<Property<?>, PropertyInfo> propertyInfos = new IdentityHashMap<>();
+        for (Map.Entry<ResourceKey<Block>, Block> entry : entries) {
+            for (Property<?> property : entry.getValue().getStateDefinition().getProperties()) {
+                propertyInfos.computeIfAbsent(property, key -> convertToPropertyInfo(property));
+            }
         }
 
-        return blockInfoList;
+        // Convert blocks to BlockInfo
+        return executor.map(entries,
+            entry -> convertToBlockInfo(entry.getKey().location().toString(), entry.getValue(), propertyInfos));
     }
 
-    private BlockInfo convertToBlockInfo(String identifier, Block block) {
+    private BlockInfo convertToBlockInfo(String identifier, Block block, Map<Property<?>, PropertyInfo> propertyInfos) {
         StateDefinition<Block, BlockState> stateDefinition = block.getStateDefinition();
         Collection<Property<?>> properties = stateDefinition.getProperties();
 
-        // Convert properties
+        // Convert properties, keeping their values in order so states can refer to them by ordinal
+        List<Property<?>> propertyList = new ArrayList<>(properties);
+        List<List<?>> propertyValues = new ArrayList<>();
         List<PropertyInfo> propertyInfoList = new ArrayList<>();
-        for (Property<?> property : properties) {
-            PropertyInfo propertyInfo = convertToPropertyInfo(property);
-            propertyInfoList.add(propertyInfo);
+        for (Property<?> property : propertyList) {
+            propertyValues.add(new ArrayList<>(property.getPossibleValues()));
+            propertyInfoList.add(propertyInfos.get(property));
         }
 
         // Convert block states
         List<BlockStateInfo> stateInfoList = new ArrayList<>();
         for (BlockState state : stateDefinition.getPossibleStates()) {
-            BlockStateInfo stateInfo = convertToBlockStateInfo(state, properties, block.defaultBlockState());
+            BlockStateInfo stateInfo = convertToBlockStateInfo(state, propertyList, propertyValues, propertyInfoList,
+                block.defaultBlockState());
             stateInfoList.add(stateInfo);
         }
 
@@ -71,22 +88,20 @@ public class FabricBlockDataProvider implements BlockDataProvider {
         return new PropertyInfo(property.getName(), possibleValues);
     }
 
-    private BlockStateInfo convertToBlockStateInfo(BlockState state, Collection<Property<?>> properties, BlockState defaultState) {
+    private BlockStateInfo convertToBlockStateInfo(
+            BlockState state, List<Property<?>> properties, List<List<?>> propertyValues,
+            List<PropertyInfo> propertyInfoList, BlockState defaultState
+    ) {
         int stateId = Block.getId(state);
         boolean isDefault = state.equals(defaultState);
 
-        // Convert properties
-        Map<String, String> stateProperties = new LinkedHashMap<>();
-        for (Property<?> property : properties) {
-            String value = getPropertyValueAsString(state, property);
-            stateProperties.put(property.getName(), value);
+        // Store each value as its index in the property's possible values
+        int[] valueOrdinals = new int[properties.size()];
+        for (int i = 0; i < properties.size(); i++) {
+            valueOrdinals[i] = propertyValues.get(i).indexOf(state.getValue(properties.get(i)));
         }
 
-        return new BlockStateInfo(stateId, stateProperties, isDefault);
-    }
-
-    private <T extends Comparable<T>> String getPropertyValueAsString(BlockState state, Property<T> property) {
-        return property.getName(state.getValue(property));
+        return new BlockStateInfo(stateId, propertyInfoList, valueOrdinals, isDefault);
     }
 
 }
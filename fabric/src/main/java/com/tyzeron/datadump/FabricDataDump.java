@@ -1,11 +1,16 @@
 package com.tyzeron.datadump;
 
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.tyzeron.datadump.command.CommandHandler;
+import com.tyzeron.datadump.command.CommandResult;
 
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.commands.CommandSourceStack;
 
 import static net.minecraft.commands.Commands.literal;
 
@@ -17,7 +22,6 @@ public class FabricDataDump implements ModInitializer {
         // Initialize platform-specific components
         PlatformHelper.setBlockDataProvider(new FabricBlockDataProvider());
         PlatformHelper.setRegistryDataProvider(new FabricRegistryDataProvider());
-        PlatformHelper.setNbtWriter(new FabricNbtWriter());
         PlatformHelper.setGameDirectory(FabricLoader.getInstance().getGameDir());
         PlatformHelper.setConfigDirectory(FabricLoader.getInstance().getConfigDir());
 
@@ -29,6 +33,20 @@ public class FabricDataDump implements ModInitializer {
 
         // Register commands
         registerCommands();
+
+        // Work through tick-mode dumps at the end of every server tick
+        ServerTickEvents.END_SERVER_TICK.register(server -> CommandHandler.onServerTick());
+
+        // Warm up the snapshot cache once registries are available, and drop cached registries when they change
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            ((FabricRegistryDataProvider) PlatformHelper.getRegistryDataProvider()).setServer(server);
+            CommandHandler.onServerStarted();
+        });
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            ((FabricRegistryDataProvider) PlatformHelper.getRegistryDataProvider()).setServer(server);
+            CommandHandler.onRegistriesReloaded();
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> CommandHandler.onServerStopped());
     }
 
     private void registerCommands() {
@@ -36,27 +54,42 @@ public class FabricDataDump implements ModInitializer {
             dispatcher.register(literal("datadump")
                 .then(literal("run")
                     .requires(source -> source.hasPermission(2))
-                    .then(net.minecraft.commands.Commands.argument("profile", StringArgumentType.string())
+                    .then(net.minecraft.commands.Commands.argument("profiles", StringArgumentType.greedyString())
                         .suggests((context, builder) -> {
-                            // Suggest available profiles
+                            // Suggest available profiles for the name being typed
+                            var nameBuilder = builder.createOffset(builder.getStart() + builder.getRemaining().lastIndexOf(' ') + 1);
                             var profiles = CommandHandler.getConfigManager().listProfiles();
                             for (String profile : profiles) {
-                                builder.suggest(profile);
+                                nameBuilder.suggest(profile);
                             }
-                            return builder.buildFuture();
+                            return nameBuilder.buildFuture();
                         })
                         .executes(context -> {
-                            String profileName = StringArgumentType.getString(context, "profile");
+                            String profileNames = StringArgumentType.getString(context, "profiles");
+                            var source = context.getSource();
+                            var server = source.getServer();
+                            // Capture the registries on the server thread, the dump itself runs as a background job
                             var registryProvider = (FabricRegistryDataProvider) PlatformHelper.getRegistryDataProvider();
-                            registryProvider.setServer(context.getSource().getServer());
-                            var result = CommandHandler.handleRun(profileName);
-                            if (result.isSuccess()) {
-                                context.getSource().sendSuccess(() -> 
-                                    net.minecraft.network.chat.Component.literal(result.getMessage()), true);
-                            } else {
-                                context.getSource().sendFailure(
-                                    net.minecraft.network.chat.Component.literal(result.getMessage()));
-                            }
+                            registryProvider.setServer(server);
+                            var result = CommandHandler.handleRunAsync(profileNames,
+                                jobResult -> server.execute(() -> sendResult(source, jobResult)));
+                            sendResult(source, result);
+                            return result.isSuccess() ? 1 : 0;
+                        })))
+                .then(literal("status")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(context -> {
+                        var result = CommandHandler.handleStatus();
+                        context.getSource().sendSuccess(() ->
+                            net.minecraft.network.chat.Component.literal(result.getMessage()), false);
+                        return 1;
+                    }))
+                .then(literal("cancel")
+                    .requires(source -> source.hasPermission(2))
+                    .then(net.minecraft.commands.Commands.argument("id", IntegerArgumentType.integer(1))
+                        .executes(context -> {
+                            var result = CommandHandler.handleCancel(IntegerArgumentType.getInteger(context, "id"));
+                            sendResult(context.getSource(), result);
                             return result.isSuccess() ? 1 : 0;
                         })))
                 .then(literal("list")
@@ -90,4 +123,17 @@ public class FabricDataDump implements ModInitializer {
         });
     }
 
+    /**
+     * Sends a command result to the source, broadcasting successes to operators
+     */
+    private static void sendResult(CommandSourceStack source, CommandResult result) {
+        if (result.isSuccess()) {
+            source.sendSuccess(() ->
+                net.minecraft.network.chat.Component.literal(result.getMessage()), true);
+        } else {
+            source.sendFailure(
+                net.minecraft.network.chat.Component.literal(result.getMessage()));
+        }
+    }
+
 }
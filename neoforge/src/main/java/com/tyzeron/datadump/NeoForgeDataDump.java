@@ -1,14 +1,21 @@
 package com.tyzeron.datadump;
 
 import com.tyzeron.datadump.command.CommandHandler;
+import com.tyzeron.datadump.command.CommandResult;
 
 import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import net.minecraft.commands.CommandSourceStack;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.event.OnDatapackSyncEvent;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
 import static net.minecraft.commands.Commands.literal;
 
@@ -20,7 +27,6 @@ public class NeoForgeDataDump {
         // Initialize platform-specific components
         PlatformHelper.setBlockDataProvider(new NeoForgeBlockDataProvider());
         PlatformHelper.setRegistryDataProvider(new NeoForgeRegistryDataProvider());
-        PlatformHelper.setNbtWriter(new NeoForgeNbtWriter());
         PlatformHelper.setGameDirectory(FMLPaths.GAMEDIR.get());
         PlatformHelper.setConfigDirectory(FMLPaths.CONFIGDIR.get());
 
@@ -39,27 +45,42 @@ public class NeoForgeDataDump {
             event.getDispatcher().register(literal("datadump")
                 .then(literal("run")
                     .requires(source -> source.hasPermission(2))
-                    .then(net.minecraft.commands.Commands.argument("profile", StringArgumentType.string())
+                    .then(net.minecraft.commands.Commands.argument("profiles", StringArgumentType.greedyString())
                         .suggests((context, builder) -> {
-                            // Suggest available profiles
+                            // Suggest available profiles for the name being typed
+                            var nameBuilder = builder.createOffset(builder.getStart() + builder.getRemaining().lastIndexOf(' ') + 1);
                             var profiles = CommandHandler.getConfigManager().listProfiles();
                             for (String profile : profiles) {
-                                builder.suggest(profile);
+                                nameBuilder.suggest(profile);
                             }
-                            return builder.buildFuture();
+                            return nameBuilder.buildFuture();
                         })
                         .executes(context -> {
-                            String profileName = StringArgumentType.getString(context, "profile");
+                            String profileNames = StringArgumentType.getString(context, "profiles");
+                            var source = context.getSource();
+                            var server = source.getServer();
+                            // Capture the registries on the server thread, the dump itself runs as a background job
                             var registryProvider = (NeoForgeRegistryDataProvider) PlatformHelper.getRegistryDataProvider();
-                            registryProvider.setServer(context.getSource().getServer());
-                            var result = CommandHandler.handleRun(profileName);
-                            if (result.isSuccess()) {
-                                context.getSource().sendSuccess(() -> 
-                                    net.minecraft.network.chat.Component.literal(result.getMessage()), true);
-                            } else {
-                                context.getSource().sendFailure(
-                                    net.minecraft.network.chat.Component.literal(result.getMessage()));
-                            }
+                            registryProvider.setServer(server);
+                            var result = CommandHandler.handleRunAsync(profileNames,
+                                jobResult -> server.execute(() -> sendResult(source, jobResult)));
+                            sendResult(source, result);
+                            return result.isSuccess() ? Command.SINGLE_SUCCESS : 0;
+                        })))
+                .then(literal("status")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(context -> {
+                        var result = CommandHandler.handleStatus();
+                        context.getSource().sendSuccess(() ->
+                            net.minecraft.network.chat.Component.literal(result.getMessage()), false);
+                        return Command.SINGLE_SUCCESS;
+                    }))
+                .then(literal("cancel")
+                    .requires(source -> source.hasPermission(2))
+                    .then(net.minecraft.commands.Commands.argument("id", IntegerArgumentType.integer(1))
+                        .executes(context -> {
+                            var result = CommandHandler.handleCancel(IntegerArgumentType.getInteger(context, "id"));
+                            sendResult(context.getSource(), result);
                             return result.isSuccess() ? Command.SINGLE_SUCCESS : 0;
                         })))
                 .then(literal("list")
@@ -91,6 +112,46 @@ public class NeoForgeDataDump {
                     }))
             );
         }
+
+        @SubscribeEvent
+        public static void onServerTick(ServerTickEvent.Post event) {
+            // Work through tick-mode dumps at the end of every server tick
+            CommandHandler.onServerTick();
+        }
+
+        @SubscribeEvent
+        public static void onServerStarted(ServerStartedEvent event) {
+            // Warm up the snapshot cache once registries are available
+            ((NeoForgeRegistryDataProvider) PlatformHelper.getRegistryDataProvider()).setServer(event.getServer());
+            CommandHandler.onServerStarted();
+        }
+
+        @SubscribeEvent
+        public static void onDatapackSync(OnDatapackSyncEvent event) {
+            // Without a player the event follows a datapack reload, cached registries may be out of date
+            if (event.getPlayer() == null) {
+                ((NeoForgeRegistryDataProvider) PlatformHelper.getRegistryDataProvider()).setServer(event.getPlayerList().getServer());
+                CommandHandler.onRegistriesReloaded();
+            }
+        }
+
+        @SubscribeEvent
+        public static void onServerStopped(ServerStoppedEvent event) {
+            CommandHandler.onServerStopped();
+        }
+
+        /**
+         * Sends a command result to the source, broadcasting successes to operators
+         */
+        private static void sendResult(CommandSourceStack source, CommandResult result) {
+            if (result.isSuccess()) {
+                source.sendSuccess(() ->
+                    net.minecraft.network.chat.Component.literal(result.getMessage()), true);
+            } else {
+                source.sendFailure(
+                    net.minecraft.network.chat.Component.literal(result.getMessage()));
+            }
+        }
     }
 
 }
@@ -1,29 +1,44 @@
 package com.tyzeron.datadump;
 
 import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.tyzeron.datadump.abstraction.registry.DeferredRegistryEntryData;
+import com.tyzeron.datadump.abstraction.registry.NbtRegistryEntryData;
 import com.tyzeron.datadump.abstraction.registry.RegistryData;
 import com.tyzeron.datadump.abstraction.registry.RegistryDataProvider;
 import com.tyzeron.datadump.abstraction.registry.RegistryEntryData;
 import com.tyzeron.datadump.abstraction.registry.RegistryEntryInfo;
 import com.tyzeron.datadump.abstraction.registry.RegistryInfo;
-import com.tyzeron.datadump.util.NbtConverter;
+import com.tyzeron.datadump.builder.BuilderOps;
+import com.tyzeron.datadump.builder.DataStructureBuilder;
+import com.tyzeron.datadump.config.ProfileConfig;
+import com.tyzeron.datadump.util.FieldProjection;
+import com.tyzeron.datadump.util.IdentifierFilter;
+import com.tyzeron.datadump.util.WorkExecutor;
 
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.EndTag;
 import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.resources.RegistryDataLoader;
 import net.minecraft.resources.RegistryOps;
 import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.function.Function;
 
 
 /**
@@ -32,235 +47,214 @@ import java.util.Optional;
  */
 public class NeoForgeRegistryDataProvider implements RegistryDataProvider {
 
-    private MinecraftServer server;
-    private final NeoForgeNbtConverter nbtConverter = new NeoForgeNbtConverter();
+    // Captured on the server thread, the frozen registries can then be read from dump jobs and worker threads
+    private volatile RegistryAccess registryAccess;
 
     public NeoForgeRegistryDataProvider() {
         // Server will be set when needed
     }
 
     public void setServer(MinecraftServer server) {
-        this.server = server;
+        this.registryAccess = server.registryAccess();
     }
 
     @Override
-    public Collection<RegistryInfo> getAllRegistries() {
-        if (server == null) {
+    public Collection<RegistryInfo> getAllRegistries(ProfileConfig.RegistriesConfig config, WorkExecutor executor) {
+        RegistryAccess registryAccess = this.registryAccess;
+        if (registryAccess == null) {
             DataDump.LOGGER.warn("Server not available, cannot access dynamic registries");
             return Collections.emptyList();
         }
 
-        List<RegistryInfo> registryInfoList = new ArrayList<>();
-        RegistryAccess registryAccess = server.registryAccess();
+        // Create RegistryOps for encoding with references, one per thread the executor uses
+        ThreadLocal<RegistryOps<Tag>> registryOps = ThreadLocal.withInitial(
+            () -> RegistryOps.create(NbtOps.INSTANCE, registryAccess));
+
+        // Look up codecs once per run, registries without one are not encoded at all
+        boolean includeCodec = config != null && config.isCodec();
+        Map<ResourceKey<? extends Registry<?>>, Codec<?>> codecIndex = includeCodec ? buildCodecIndex() : Map.of();
+
+        // Direct encoding happens while the output is written, on the writing thread, so it can not be combined with tick mode
+        boolean directEncode = includeCodec && config.isDirectEncode() && !executor.runsOnServerThread();
 
-        // Create RegistryOps for encoding with references
-        RegistryOps<Tag> registryOps = RegistryOps.create(NbtOps.INSTANCE, registryAccess);
+        // Registries left out by the profile are skipped before any of their entries are collected
+        IdentifierFilter filter = config != null
+            ? IdentifierFilter.of(config.getInclude(), config.getExclude()) : IdentifierFilter.ALL;
+        int sampleLimit = config != null ? config.getSampleLimit() : 0;
 
-        // Iterate through all registries
+        // Collect the entries of all registries, so large registries are spread across workers too
+        List<String> registryIds = new ArrayList<>();
+        List<Integer> entryCounts = new ArrayList<>();
+        List<Function<RegistryOps<Tag>, RegistryEntryInfo>> entryEncoders = new ArrayList<>();
         registryAccess.registries().forEach(registryEntry -> {
-            ResourceKey<? extends Registry<?>> registryKey = registryEntry.key();
-            Registry<?> registry = registryEntry.value();
+            String registryId = registryEntry.key().location().toString();
+            if (!filter.matches(registryId)) {
+                return;
+            }
+            registryIds.add(registryId);
+            Codec<?> codec = codecIndex.get(registryEntry.key());
 
-            String registryId = registryKey.location().toString();
-            RegistryInfo registryInfo = convertToRegistryInfo(registryId, registryKey, registry, registryOps);
-            registryInfoList.add(registryInfo);
+            // Projected elements are pruned as NBT, so they always take the NbtOps path
+            FieldProjection projection = includeCodec ? FieldProjection.forRegistry(config.getProjection(), registryId) : null;
+            entryCounts.add(collectEntries(registryEntry.value(), codec,
+                directEncode && projection == null ? registryAccess : null, projection, sampleLimit, entryEncoders));
         });
 
+        List<RegistryEntryInfo> encodedEntries = executor.map(entryEncoders,
+            encoder -> encoder.apply(registryOps.get()));
+
+        // Regroup the encoded entries by registry, in their original order
+        List<RegistryInfo> registryInfoList = new ArrayList<>();
+        int offset = 0;
+        for (int i = 0; i < registryIds.size(); i++) {
+            int entryCount = entryCounts.get(i);
+            List<RegistryEntryInfo> entries = new ArrayList<>(encodedEntries.subList(offset, offset + entryCount));
+            offset += entryCount;
+
+            DataDump.LOGGER.debug("Registry {} has {} entries", registryIds.get(i), entries.size());
+            registryInfoList.add(new RegistryData(registryIds.get(i), entries));
+        }
+
         DataDump.LOGGER.info("Found {} registries", registryInfoList.size());
         return registryInfoList;
     }
 
-    private <T> RegistryInfo convertToRegistryInfo(
-            String registryId, ResourceKey<? extends Registry<?>> registryKey, Registry<T> registry,
-            RegistryOps<Tag> registryOps
+    /**
+     * Adds an encoder for every entry of the registry, or for the first entries up to a positive
+     * sample limit, and returns the number of entries added.
+     * Entries of registries without a codec are added without encoded data. When a registry access
+     * for direct encoding is given, entries are only encoded once the output is written.
+     * A projection, if given, prunes every encoded element to its selected fields.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> int collectEntries(
+            Registry<T> registry, Codec<?> codec, RegistryAccess directEncodeAccess,
+            FieldProjection projection, int sampleLimit, List<Function<RegistryOps<Tag>, RegistryEntryInfo>> entryEncoders
     ) {
-        List<RegistryEntryInfo> entries = new ArrayList<>();
+        Codec<T> elementCodec = (Codec<T>) codec;
+        int entryCount = 0;
 
         for (var entry : registry.entrySet()) {
-            ResourceLocation entryId = entry.getKey().location();
+            if (sampleLimit > 0 && entryCount >= sampleLimit) {
+                break;
+            }
+            String entryId = entry.getKey().location().toString();
             T element = entry.getValue();
             int rawId = registry.getId(element);
 
-            // Try to encode the element using its codec
-            Map<String, Object> encodedData = encodeElement(entryId.toString(), element, registryKey, registryOps);
-            
-            entries.add(new RegistryEntryData(entryId.toString(), rawId, encodedData));
+            if (elementCodec == null) {
+                entryEncoders.add(registryOps -> new RegistryEntryData(entryId, rawId, null));
+            } else if (directEncodeAccess != null) {
+                // Write the element straight into the output, falling back to NbtOps for what the builder ops can not handle
+                entryEncoders.add(registryOps -> new DeferredRegistryEntryData(entryId, rawId,
+                    (builder, parent, key) -> writeElement(entryId, element, elementCodec,
+                        directEncodeAccess, builder, parent, key),
+                    () -> new NbtRegistryEntryData(entryId, rawId, encodeElement(entryId, element,
+                        elementCodec, RegistryOps.create(NbtOps.INSTANCE, directEncodeAccess)))));
+            } else {
+                // Try to encode the element using its codec
+                entryEncoders.add(registryOps -> {
+                    byte[] payload = encodeElement(entryId, element, elementCodec, registryOps);
+                    return new NbtRegistryEntryData(entryId, rawId,
+                        projection != null && payload != null ? projection.apply(payload) : payload);
+                });
+            }
+            entryCount++;
         }
 
-        DataDump.LOGGER.debug("Registry {} has {} entries", registryId, entries.size());
-        return new RegistryData(registryId, entries);
+        return entryCount;
     }
 
     /**
-     * Encodes a registry element using its codec
+     * Encodes a registry element using its codec into a binary NBT compound payload.
+     * An element that fails to encode is left without encoded data, independently of the other elements,
+     * so the output does not depend on the order in which workers encode them.
      */
-    private <T> Map<String, Object> encodeElement(
-            String identifier, T element, ResourceKey<? extends Registry<?>> registryKey,
-            RegistryOps<Tag> registryOps
-    ) {
+    private <T> byte[] encodeElement(String identifier, T element, Codec<T> codec, RegistryOps<Tag> registryOps) {
         try {
-            Optional<Codec<T>> codecOpt = getCodecForRegistry(registryKey);
-            
-            if (codecOpt.isPresent()) {
-                Codec<T> codec = codecOpt.get();
-                var result = codec.encodeStart(registryOps, element);
-                
-                if (result.result().isPresent()) {
-                    Tag nbtTag = result.result().get();
-                    return nbtConverter.convertToMap(nbtTag);
-                } else if (result.error().isPresent()) {
-                    DataDump.LOGGER.debug("Failed to encode {}: {}", identifier, result.error().get().message());
-                }
+            var result = codec.encodeStart(registryOps, element);
+
+            if (result.result().isPresent()) {
+                Tag nbtTag = result.result().get();
+                return toCompoundPayload(nbtTag);
+            } else if (result.error().isPresent()) {
+                DataDump.LOGGER.debug("Failed to encode {}: {}", identifier, result.error().get().message());
             }
         } catch (Exception e) {
-            DataDump.LOGGER.trace("Could not encode element {}: {}", identifier, e.getMessage());
+            DataDump.LOGGER.debug("Could not encode element {}: {}", identifier, e.getMessage());
         }
-        
+
         return null;
     }
 
     /**
-     * Gets the codec for a registry from RegistryDataLoader.
-     * Uses WORLDGEN_REGISTRIES which contains all data-driven registries.
+     * Writes the payload of a compound holding the encoded element, so builders can splice or replay it
+     * without converting the tag. Other tags are wrapped as {"value": tag}.
      */
-    private <T> Optional<Codec<T>> getCodecForRegistry(ResourceKey<? extends Registry<?>> registryKey) {
-        try {
-            for (var loadable : RegistryDataLoader.WORLDGEN_REGISTRIES) {
-                if (loadable.key().equals(registryKey)) {
-                    return Optional.of((Codec<T>) loadable.elementCodec());
-                }
-            }
-        } catch (Exception e) {
-            DataDump.LOGGER.trace("Could not find element codec for registry {}: {}", 
-                registryKey.location(), e.getMessage());
+    private static byte[] toCompoundPayload(Tag tag) throws IOException {
+        CompoundTag compound;
+        if (tag instanceof CompoundTag compoundTag) {
+            compound = compoundTag;
+        } else {
+            // An end tag can not be stored in a compound, keep its string form instead
+            compound = new CompoundTag();
+            compound.put("value", tag instanceof EndTag ? StringTag.valueOf(tag.getAsString()) : tag);
         }
-        return Optional.empty();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        compound.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
     }
 
     /**
-     * NeoForge-specific NBT converter
+     * Encodes a registry element straight into a builder. Returns false if the codec needs something
+     * the builder ops do not support, so the element can be encoded through NbtOps instead. Nothing is
+     * written to the builder in that case.
      */
-    private static class NeoForgeNbtConverter extends NbtConverter<Tag> {
-
-        @Override
-        protected boolean isCompound(Tag tag) {
-            return tag instanceof net.minecraft.nbt.CompoundTag;
-        }
-
-        @Override
-        protected boolean isList(Tag tag) {
-            return tag instanceof net.minecraft.nbt.ListTag;
-        }
-
-        @Override
-        protected boolean isInt(Tag tag) {
-            return tag instanceof net.minecraft.nbt.IntTag;
-        }
-
-        @Override
-        protected boolean isLong(Tag tag) {
-            return tag instanceof net.minecraft.nbt.LongTag;
-        }
-
-        @Override
-        protected boolean isFloat(Tag tag) {
-            return tag instanceof net.minecraft.nbt.FloatTag;
-        }
-
-        @Override
-        protected boolean isDouble(Tag tag) {
-            return tag instanceof net.minecraft.nbt.DoubleTag;
-        }
-
-        @Override
-        protected boolean isByte(Tag tag) {
-            return tag instanceof net.minecraft.nbt.ByteTag;
-        }
-
-        @Override
-        protected boolean isShort(Tag tag) {
-            return tag instanceof net.minecraft.nbt.ShortTag;
-        }
-
-        @Override
-        protected boolean isByteArray(Tag tag) {
-            return tag instanceof net.minecraft.nbt.ByteArrayTag;
-        }
-
-        @Override
-        protected boolean isIntArray(Tag tag) {
-            return tag instanceof net.minecraft.nbt.IntArrayTag;
-        }
-
-        @Override
-        protected boolean isLongArray(Tag tag) {
-            return tag instanceof net.minecraft.nbt.LongArrayTag;
-        }
-
-        @Override
-        protected Iterable<String> getCompoundKeys(Tag compound) {
-            return ((net.minecraft.nbt.CompoundTag) compound).getAllKeys();
-        }
-
-        @Override
-        protected Tag getCompoundValue(Tag compound, String key) {
-            return ((net.minecraft.nbt.CompoundTag) compound).get(key);
-        }
-
-        @Override
-        protected Iterable<Tag> getListElements(Tag list) {
-            return (net.minecraft.nbt.ListTag) list;
-        }
-
-        @Override
-        protected int getAsInt(Tag tag) {
-            return ((net.minecraft.nbt.IntTag) tag).getAsInt();
-        }
-
-        @Override
-        protected long getAsLong(Tag tag) {
-            return ((net.minecraft.nbt.LongTag) tag).getAsLong();
-        }
-
-        @Override
-        protected float getAsFloat(Tag tag) {
-            return ((net.minecraft.nbt.FloatTag) tag).getAsFloat();
-        }
-
-        @Override
-        protected double getAsDouble(Tag tag) {
-            return ((net.minecraft.nbt.DoubleTag) tag).getAsDouble();
-        }
-
-        @Override
-        protected byte getAsByte(Tag tag) {
-            return ((net.minecraft.nbt.ByteTag) tag).getAsByte();
-        }
-
-        @Override
-        protected short getAsShort(Tag tag) {
-            return ((net.minecraft.nbt.ShortTag) tag).getAsShort();
-        }
-
-        @Override
-        protected byte[] getAsByteArray(Tag tag) {
-            return ((net.minecraft.nbt.ByteArrayTag) tag).getAsByteArray();
-        }
-
-        @Override
-        protected int[] getAsIntArray(Tag tag) {
-            return ((net.minecraft.nbt.IntArrayTag) tag).getAsIntArray();
+    private <T> boolean writeElement(
+            String identifier, T element, Codec<T> codec, RegistryAccess registryAccess,
+            DataStructureBuilder builder, Object parent, String key
+    ) {
+        BuilderOps builderOps = new BuilderOps(builder);
+        Object encoded;
+        try {
+            DataResult<Object> result = codec.encodeStart(RegistryOps.create(builderOps, registryAccess), element);
+            if (result.result().isEmpty()) {
+                return false;
+            }
+            if (builderOps.getUnsupported() != null) {
+                DataDump.LOGGER.debug("Could not encode element {} directly, using NbtOps: {}", identifier, builderOps.getUnsupported());
+                return false;
+            }
+            encoded = result.result().get();
+        } catch (UncheckedIOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            DataDump.LOGGER.debug("Could not encode element {} directly, using NbtOps: {}", identifier, e.getMessage());
+            return false;
         }
 
-        @Override
-        protected long[] getAsLongArray(Tag tag) {
-            return ((net.minecraft.nbt.LongArrayTag) tag).getAsLongArray();
-        }
+        // Attaching writes the element to the output, falling back to NbtOps after that would write it twice
+        builderOps.attach(parent, key, encoded);
+        return true;
+    }
 
-        @Override
-        protected String getAsString(Tag tag) {
-            return tag.getAsString();
+    /**
+     * Builds the registry key to element codec index from RegistryDataLoader.
+     * Worldgen codecs come first since they are the most complete, then dimension
+     * and finally the synchronized (network) codecs for registries not covered yet.
+     */
+    private static Map<ResourceKey<? extends Registry<?>>, Codec<?>> buildCodecIndex() {
+        Map<ResourceKey<? extends Registry<?>>, Codec<?>> codecIndex = new HashMap<>();
+        for (var loadables : List.of(
+                RegistryDataLoader.WORLDGEN_REGISTRIES,
+                RegistryDataLoader.DIMENSION_REGISTRIES,
+                RegistryDataLoader.SYNCHRONIZED_REGISTRIES)) {
+            for (var loadable : loadables) {
+                codecIndex.putIfAbsent(loadable.key(), loadable.elementCodec());
+            }
         }
+        return codecIndex;
     }
 
 }